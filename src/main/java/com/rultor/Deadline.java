@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor;
+
+import java.io.Closeable;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline of the current thread.
+ *
+ * <p>The thread which creates the deadline gets interrupted when the
+ * time is over, unless the deadline is closed before. Once closed,
+ * the deadline never interrupts the thread again, even if the timer
+ * fired right before that.</p>
+ *
+ * <p>The deadline is a best effort only: it sets the interrupt flag
+ * of the thread, which stops it only when it waits, sleeps or checks
+ * the flag. Blocking network IO, like SSH sessions of
+ * {@link com.jcabi.ssh.Shell#exec}, ignores the flag and
+ * keeps the thread busy until it's over; the deadline can only report
+ * the overrun afterwards.</p>
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+final class Deadline implements Closeable {
+
+    /**
+     * Lock.
+     */
+    private final transient Object lock = new Object();
+
+    /**
+     * The thread to interrupt.
+     */
+    private final transient Thread thread;
+
+    /**
+     * Scheduled interruption.
+     */
+    private final transient ScheduledFuture<?> alarm;
+
+    /**
+     * Closed already?
+     */
+    private transient boolean closed;
+
+    /**
+     * Interrupted already?
+     */
+    private transient boolean fired;
+
+    /**
+     * Ctor.
+     * @param timer Timer to use
+     * @param msec Milliseconds the current thread is allowed to work
+     */
+    Deadline(final ScheduledExecutorService timer, final long msec) {
+        this.thread = Thread.currentThread();
+        this.alarm = timer.schedule(
+            this::interrupt, msec, TimeUnit.MILLISECONDS
+        );
+    }
+
+    @Override
+    public void close() {
+        synchronized (this.lock) {
+            this.closed = true;
+            this.alarm.cancel(false);
+            if (this.fired) {
+                Thread.interrupted();
+            }
+        }
+    }
+
+    /**
+     * Was the thread interrupted because of the deadline?
+     * @return TRUE if the time was over
+     */
+    public boolean expired() {
+        synchronized (this.lock) {
+            return this.fired;
+        }
+    }
+
+    /**
+     * Interrupt the thread.
+     */
+    private void interrupt() {
+        synchronized (this.lock) {
+            if (!this.closed) {
+                this.fired = true;
+                this.thread.interrupt();
+            }
+        }
+    }
+
+}
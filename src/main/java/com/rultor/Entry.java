@@ -48,12 +48,20 @@ import com.jcabi.log.Logger;
 import com.jcabi.manifests.Manifests;
 import com.jcabi.urn.URN;
 import com.rultor.cached.CdTalks;
+import com.rultor.changes.ChTalks;
+import com.rultor.changes.Sink;
+import com.rultor.dynamo.DyShard;
 import com.rultor.dynamo.DyTalks;
+import com.rultor.local.LcTalks;
+import com.rultor.ready.RdTalks;
+import com.rultor.ready.Ready;
 import com.rultor.spi.Pulse;
+import com.rultor.spi.Shard;
 import com.rultor.spi.Talks;
 import com.rultor.spi.Tick;
 import com.rultor.web.TkApp;
 import io.sentry.Sentry;
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -74,6 +82,35 @@ import org.takes.http.FtCli;
 @SuppressWarnings("PMD.ExcessiveImports")
 public final class Entry {
 
+    /**
+     * System property with the amount of talks processed in parallel.
+     */
+    private static final String THREADS = "rultor.threads";
+
+    /**
+     * System property with the time budget of one talk, in minutes;
+     * it is not enforced while the talk is blocked in network IO.
+     */
+    private static final String BUDGET = "rultor.budget";
+
+    /**
+     * System property with the name of this node, when a few nodes
+     * share the talks; without it the node works with all talks alone.
+     */
+    private static final String NODE = "rultor.node";
+
+    /**
+     * System property with the directory of the local store of talks;
+     * without it the talks are in DynamoDB.
+     */
+    private static final String STORE = "rultor.store";
+
+    /**
+     * System property with the file to log changes of talks to;
+     * without it changes are not reported at all.
+     */
+    private static final String CHANGES = "rultor.changes";
+
     /**
      * Arguments.
      */
@@ -107,15 +144,21 @@ public final class Entry {
         if (!dsn.startsWith("test")) {
             Sentry.init(dsn);
         }
-        final Talks talks = new CdTalks(
-            new DyTalks(
-                this.dynamo(), this.sttc().counters().get("rt-talk")
-            )
+        final Ready ready = new Ready();
+        final Talks talks = Entry.changes(
+            new RdTalks(new CdTalks(this.origin()), ready)
         );
         Logger.info(this, "Starting the Routine...");
+        final long budget = TimeUnit.MINUTES.toMillis(
+            Long.parseLong(System.getProperty(Entry.BUDGET, "5"))
+        );
         final Routine routine = new Routine(
-            talks, Entry.pulse(), this.github(), this.sttc()
+            talks, ready, this.shard(budget), Entry.pulse(), this.github(),
+            this.sttc(),
+            Integer.parseInt(System.getProperty(Entry.THREADS, "8")),
+            budget
         );
+        routine.start();
         Logger.info(this, "Starting the web front to run forever...");
         try {
             new FtCli(
@@ -127,6 +170,40 @@ public final class Entry {
         }
     }
 
+    /**
+     * Talks, in DynamoDB or in the local store.
+     * @return Talks
+     * @throws IOException If fails
+     */
+    private Talks origin() throws IOException {
+        final String dir = System.getProperty(Entry.STORE);
+        final Talks talks;
+        if (dir == null) {
+            talks = new DyTalks(
+                this.dynamo(), this.sttc().counters().get("rt-talk")
+            );
+        } else {
+            talks = new LcTalks(new File(dir));
+        }
+        return talks;
+    }
+
+    /**
+     * Talks, which log their changes to a file, if it's configured.
+     * @param talks Talks
+     * @return Talks
+     */
+    private static Talks changes(final Talks talks) {
+        final String file = System.getProperty(Entry.CHANGES);
+        final Talks changes;
+        if (file == null) {
+            changes = talks;
+        } else {
+            changes = new ChTalks(talks, new Sink.InFile(new File(file)));
+        }
+        return changes;
+    }
+
     /**
      * Make github.
      * @return Github
@@ -199,6 +276,30 @@ public final class Entry {
         );
     }
 
+    /**
+     * Shard of this node.
+     *
+     * <p>Leases of talks are prolonged on every tick, which may take as
+     * long as the budget of one talk, that's why they last longer.</p>
+     *
+     * @param budget Time budget of one talk, in milliseconds
+     * @return Shard
+     */
+    private Shard shard(final long budget) {
+        final String node = System.getProperty(Entry.NODE);
+        final Shard shard;
+        if (node == null) {
+            shard = new Shard.Whole();
+        } else {
+            Logger.info(this, "working as node %s", node);
+            shard = new DyShard(
+                this.dynamo(), node,
+                budget + TimeUnit.MINUTES.toMillis(Tv.THREE)
+            );
+        }
+        return shard;
+    }
+
     /**
      * Create pulse.
      * @return Pulse
@@ -35,38 +35,55 @@ import com.jcabi.aspects.Timeable;
 import com.jcabi.aspects.Tv;
 import com.jcabi.github.Github;
 import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseThreads;
 import com.rultor.agents.Agents;
+import com.rultor.cached.BufferedTalk;
 import com.rultor.profiles.Profiles;
+import com.rultor.ready.Ready;
+import com.rultor.shard.ShTalks;
 import com.rultor.spi.Profile;
 import com.rultor.spi.Pulse;
+import com.rultor.spi.Shard;
 import com.rultor.spi.Talk;
 import com.rultor.spi.Talks;
 import com.rultor.spi.Tick;
 import io.sentry.Sentry;
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.Date;
+import java.util.LinkedList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import javax.validation.constraints.NotNull;
 
 /**
  * Routine.
  *
+ * <p>Every minute all active talks are processed. Besides that, talks
+ * which are {@link Ready} are processed right away, in between
+ * the ticks.</p>
+ *
+ * <p>When a few nodes work together, each of them processes only the
+ * talks of its {@link Shard}, while new talks are started only by
+ * the leader.</p>
+ *
  * @author Yegor Bugayenko (yegor256@gmail.com)
  * @version $Id$
  * @since 1.50
- * @todo #1125:30min Routine should be delegate execution to separate threads.
- *  Currently com.rultor.Routine#process() is sequentially processing all Talks
- *  and breaking out of this sequential processing to log occurring exceptions.
- *  This leads to issues in one build breaking all builds globally.
- *  This should be reworked to run the chain of Agents for each talk in a
- *  separate thread, not interfering with the main Routine in error cases.
- *  Once this is done the swallowing of generic exceptions, added to
- *  circumvent this issue, in
- *  com.rultor.agents.github.Reports#process(com.jcabi.xml.XML) should be
- *  removed.
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
  */
 @ScheduleWithFixedDelay(delay = 1, unit = TimeUnit.MINUTES, threads = 1)
 @SuppressWarnings("PMD.DoNotUseThreads")
@@ -92,41 +109,115 @@ final class Routine implements Runnable, Closeable {
      */
     private final transient Talks talks;
 
+    /**
+     * Talks ready for processing.
+     */
+    private final transient Ready ready;
+
+    /**
+     * Shard of this node.
+     */
+    private final transient Shard shard;
+
+    /**
+     * Talks of this node.
+     */
+    private final transient Talks mine;
+
+    /**
+     * Barrier between super agents and agents of individual talks.
+     */
+    private final transient ReadWriteLock barrier =
+        new ReentrantReadWriteLock();
+
     /**
      * Agents.
      */
     private final transient Agents agents;
 
+    /**
+     * Executor of talks, each talk is processed in its own thread.
+     */
+    private final transient ExecutorService service;
+
+    /**
+     * Timer for deadlines of talks.
+     */
+    private final transient ScheduledExecutorService timer;
+
+    /**
+     * Maximum time one talk may take, in milliseconds.
+     */
+    private final transient long budget;
+
+    /**
+     * Listener of ready talks.
+     */
+    private final transient ExecutorService listener;
+
     /**
      * Ctor.
      * @param tlks Talks
+     * @param rdy Talks ready for processing
+     * @param shrd Shard of this node
      * @param pls Pulse
      * @param github Github client
      * @param sttc Sttc client
-     * @checkstyle ParameterNumberCheck (4 lines)
+     * @param threads How many talks to process in parallel
+     * @param msec How long one talk may take, in milliseconds
+     * @checkstyle ParameterNumberCheck (5 lines)
      */
-    Routine(@NotNull final Talks tlks, final Pulse pls,
-        final Github github, final Sttc sttc) {
+    Routine(@NotNull final Talks tlks, final Ready rdy, final Shard shrd,
+        final Pulse pls, final Github github, final Sttc sttc,
+        final int threads, final long msec) {
         this.talks = tlks;
+        this.ready = rdy;
+        this.shard = shrd;
+        this.mine = new ShTalks(tlks, shrd);
         this.pulse = pls;
         this.agents = new Agents(github, sttc);
+        this.service = Executors.newFixedThreadPool(
+            threads, new VerboseThreads("routine")
+        );
+        this.timer = Executors.newSingleThreadScheduledExecutor(
+            new VerboseThreads("deadline")
+        );
+        this.budget = msec;
+        this.listener = Executors.newSingleThreadExecutor(
+            new VerboseThreads("ready")
+        );
+    }
+
+    /**
+     * Start listening to ready talks.
+     *
+     * <p>Until this method is called, talks are processed only
+     * by the ticks.</p>
+     */
+    public void start() {
+        this.listener.execute(this::listen);
     }
 
     @Override
     public void close() {
         this.down.set(true);
+        this.listener.shutdownNow();
+        this.service.shutdownNow();
+        this.timer.shutdownNow();
     }
 
     @Override
     @SuppressWarnings("PMD.AvoidCatchingThrowable")
     public void run() {
         try {
+            final Collection<Throwable> errors =
+                new ConcurrentLinkedQueue<>();
             Logger.info(
                 this, "%d active talks, alive for %[ms]s: %tc",
-                this.safe(),
+                this.safe(errors),
                 System.currentTimeMillis() - this.start, new Date()
             );
-            this.pulse.error(Collections.<Throwable>emptyList());
+            this.pulse.error(errors);
             // @checkstyle IllegalCatchCheck (1 line)
         } catch (final Throwable ex) {
             if (!this.down.get()) {
@@ -144,17 +235,18 @@ final class Routine implements Runnable, Closeable {
 
     /**
      * Routine every-minute proc.
+     * @param errors Errors of individual talks, to be filled
      * @return Total talks processed
      * @throws IOException If fails
      */
     @Timeable(limit = Tv.TWENTY, unit = TimeUnit.MINUTES)
-    private int safe() throws IOException {
+    private int safe(final Collection<Throwable> errors) throws IOException {
         final long begin = System.currentTimeMillis();
         int total = 0;
         if (new Toggles.InFile().readOnly()) {
             Logger.info(this, "read-only mode");
         } else {
-            total = this.process();
+            total = this.process(errors);
         }
         this.pulse.add(
             new Tick(begin, System.currentTimeMillis() - begin, total)
@@ -164,20 +256,238 @@ final class Routine implements Runnable, Closeable {
 
     /**
      * Routine every-minute proc.
+     *
+     * <p>The starter and the closer work with all talks together, that's
+     * why the first one has to finish before any talk is processed and
+     * the second one starts only when all of them are done. In between,
+     * the talks are processed in parallel and a failure in one of them
+     * doesn't affect the others, it only gets into the list of errors.</p>
+     *
+     * @param errors Errors of individual talks, to be filled
      * @return Total talks processed
      * @throws IOException If fails
      */
-    private int process() throws IOException {
-        this.agents.starter().execute(this.talks);
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    private int process(final Collection<Throwable> errors)
+        throws IOException {
+        this.shard.beat();
+        if (this.shard.leader()) {
+            this.barrier.writeLock().lock();
+            try {
+                this.agents.starter().execute(this.talks);
+            } finally {
+                this.barrier.writeLock().unlock();
+            }
+        }
         final Profiles profiles = new Profiles();
-        int total = 0;
-        for (final Talk talk : this.talks.active()) {
-            ++total;
-            final Profile profile = profiles.fetch(talk);
-            this.agents.agent(talk, profile).execute(talk);
+        final Collection<Future<?>> futures = new LinkedList<>();
+        for (final Talk talk : this.mine.active()) {
+            futures.add(
+                this.service.submit(
+                    () -> {
+                        this.process(profiles, talk, errors);
+                        return null;
+                    }
+                )
+            );
         }
-        this.agents.closer().execute(this.talks);
-        return total;
+        for (final Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (final ExecutionException ex) {
+                Logger.error(this, "#process(): %[exception]s", ex.getCause());
+                Sentry.capture(ex.getCause());
+                errors.add(ex.getCause());
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+        }
+        this.barrier.writeLock().lock();
+        try {
+            this.agents.closer().execute(this.mine);
+        } finally {
+            this.barrier.writeLock().unlock();
+        }
+        return futures.size();
+    }
+
+    /**
+     * Wait for ready talks and process them, until shut down.
+     */
+    private void listen() {
+        boolean alive = true;
+        while (alive && !this.down.get()
+            && !Thread.currentThread().isInterrupted()) {
+            try {
+                final String name = this.ready.take();
+                this.service.submit(
+                    () -> {
+                        this.react(name);
+                        return null;
+                    }
+                );
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (final RejectedExecutionException ex) {
+                Logger.warn(
+                    this, "stopped listening to ready talks: %s",
+                    ex.getMessage()
+                );
+                alive = false;
+            }
+        }
+    }
+
+    /**
+     * Process one talk, which is ready, without waiting for the tick.
+     *
+     * <p>Its errors are reported to the pulse, just like errors
+     * of the tick, until the next tick replaces them.</p>
+     *
+     * @param name Name of the talk
+     */
+    @SuppressWarnings("PMD.AvoidCatchingThrowable")
+    private void react(final String name) {
+        final Collection<Throwable> errors = new LinkedList<>();
+        try {
+            if (!new Toggles.InFile().readOnly() && this.shard.mine(name)
+                && this.talks.exists(name)) {
+                this.process(new Profiles(), this.talks.get(name), errors);
+            }
+            // @checkstyle IllegalCatchCheck (1 line)
+        } catch (final Throwable ex) {
+            errors.add(ex);
+        }
+        for (final Throwable error : errors) {
+            Logger.error(this, "#react(%s): %[exception]s", name, error);
+            Sentry.capture(error);
+        }
+        if (!errors.isEmpty()) {
+            this.pulse.error(errors);
+        }
+    }
+
+    /**
+     * Process one talk.
+     *
+     * <p>If the talk is being processed already, by the tick or because
+     * it was ready, nothing happens. If somebody else modified the talk
+     * while its agents were working, the talk is ready again, to be
+     * processed from scratch.</p>
+     *
+     * @param profiles Profiles
+     * @param talk The talk
+     * @param errors Errors to report the overrun to
+     * @throws IOException If fails
+     */
+    private void process(final Profiles profiles, final Talk talk,
+        final Collection<Throwable> errors) throws IOException {
+        final String name = talk.name();
+        if (this.ready.acquire(name)) {
+            boolean again = false;
+            this.barrier.readLock().lock();
+            try {
+                again = this.chain(profiles, talk, errors);
+            } finally {
+                this.barrier.readLock().unlock();
+                this.ready.release(name);
+            }
+            if (again) {
+                this.ready.push(name);
+            }
+        } else {
+            Logger.info(this, "talk %s is being processed already", name);
+        }
+    }
+
+    /**
+     * Run the chain of agents for one talk.
+     *
+     * <p>If the talk doesn't fit into its time budget, the agent currently
+     * working with it gets interrupted and the overrun is reported as
+     * an error, with the failure of the agent as its cause. The talk
+     * stays active, so the next tick will try it again. The budget is
+     * not a hard limit, see {@link Deadline}: an agent blocked in
+     * network IO, for example in SSH, is not stopped by the
+     * interruption and the talk takes as long as the IO does.</p>
+     *
+     * <p>The talk is read only once and all the changes made by its
+     * agents are saved together at the end, as a single
+     * modification, even if one of the agents fails. If saving fails
+     * too, its failure is suppressed by the failure of the agent.
+     * When saving fails, all changes of the talk made in this round
+     * are lost, while what the agents did outside of it (comments
+     * posted to Github, commands started on servers) is not, that's
+     * why agents must be ready to do it again in the next round.</p>
+     *
+     * <p>Changes are not saved if somebody else modified the talk since
+     * it was read, since the agents made them for the old version
+     * of the talk. This is not an error, the talk just has to be
+     * processed again.</p>
+     *
+     * @param profiles Profiles
+     * @param talk The talk
+     * @param errors Errors to report the overrun to
+     * @return TRUE if the talk has to be processed again
+     * @throws IOException If fails
+     */
+    private boolean chain(final Profiles profiles, final Talk talk,
+        final Collection<Throwable> errors) throws IOException {
+        final BufferedTalk session = new BufferedTalk(talk);
+        final Deadline deadline = new Deadline(this.timer, this.budget);
+        final Collection<Exception> failures = new LinkedList<>();
+        try {
+            final Profile profile = profiles.fetch(session);
+            this.agents.agent(session, profile).execute(session);
+        } catch (final IOException | RuntimeException ex) {
+            failures.add(ex);
+        } finally {
+            deadline.close();
+        }
+        boolean again = false;
+        try {
+            session.flush();
+        } catch (final ConcurrentModificationException ex) {
+            Logger.info(this, "changes are lost: %s", ex.getMessage());
+            again = true;
+        } catch (final IOException | RuntimeException ex) {
+            if (failures.isEmpty()) {
+                failures.add(ex);
+            } else {
+                failures.iterator().next().addSuppressed(ex);
+            }
+        }
+        if (deadline.expired()) {
+            final Throwable error = new TimeoutException(
+                Logger.format(
+                    "talk %s was interrupted after %[ms]s",
+                    talk.name(), this.budget
+                )
+            );
+            for (final Exception failure : failures) {
+                error.initCause(failure);
+            }
+            Logger.warn(this, "%s", error.getMessage());
+            errors.add(error);
+        } else {
+            for (final Exception failure : failures) {
+                Routine.rethrow(failure);
+            }
+        }
+        return again;
+    }
+
+    /**
+     * Throw the failure again.
+     * @param failure The failure, either IOException or runtime one
+     * @throws IOException If it's an IOException
+     */
+    private static void rethrow(final Exception failure) throws IOException {
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        throw (RuntimeException) failure;
     }
 
 }
@@ -30,7 +30,6 @@
 package com.rultor.agents;
 
 import com.jcabi.aspects.Immutable;
-import com.jcabi.immutable.Array;
 import com.jcabi.xml.XML;
 import com.rultor.spi.Agent;
 import com.rultor.spi.Talk;
@@ -52,29 +51,22 @@ import org.xembly.Directive;
 public abstract class AbstractAgent implements Agent {
 
     /**
-     * Encapsulated XPaths.
+     * Preconditions, as XPath expressions.
      */
-    private final transient Array<String> xpaths;
+    private final transient Preconditions xpaths;
 
     /**
      * Ctor.
      * @param args XPath expressions
      */
     public AbstractAgent(final String... args) {
-        this.xpaths = new Array<String>(args);
+        this.xpaths = new Preconditions(args);
     }
 
     @Override
     public final void execute(final Talk talk) throws IOException {
         final XML xml = talk.read();
-        boolean good = true;
-        for (final String xpath : this.xpaths) {
-            if (xml.nodes(xpath).isEmpty()) {
-                good = false;
-                break;
-            }
-        }
-        if (good) {
+        if (this.xpaths.matched(xml)) {
             talk.modify(this.process(xml));
         }
     }
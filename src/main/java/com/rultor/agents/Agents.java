@@ -31,7 +31,6 @@ package com.rultor.agents;
 
 import co.stateful.Locks;
 import co.stateful.Sttc;
-import com.jcabi.aspects.Immutable;
 import com.jcabi.github.Github;
 import com.jcabi.immutable.Array;
 import com.jcabi.manifests.Manifests;
@@ -49,6 +48,7 @@ import com.rultor.agents.docker.DockerExec;
 import com.rultor.agents.github.CommentsTag;
 import com.rultor.agents.github.Dephantomizes;
 import com.rultor.agents.github.Invitations;
+import com.rultor.agents.github.Notifications;
 import com.rultor.agents.github.Question;
 import com.rultor.agents.github.ReleaseBinaries;
 import com.rultor.agents.github.Reports;
@@ -109,7 +109,6 @@ import org.apache.commons.lang3.CharEncoding;
  * @checkstyle ClassFanOutComplexityCheck (500 lines)
  * @checkstyle MultipleStringLiteralsCheck (500 lines)
  */
-@Immutable
 @ToString
 @EqualsAndHashCode(of = { "github", "sttc" })
 @SuppressWarnings("PMD.ExcessiveImports")
@@ -125,6 +124,11 @@ public final class Agents {
      */
     private final transient Sttc sttc;
 
+    /**
+     * Github notifications, polled by the starter.
+     */
+    private final transient Notifications notifications;
+
     /**
      * Ctor.
      * @param ghub Github client
@@ -133,6 +137,7 @@ public final class Agents {
     public Agents(final Github ghub, final Sttc stc) {
         this.github = ghub;
         this.sttc = stc;
+        this.notifications = new Notifications(ghub, stc);
     }
 
     /**
@@ -143,9 +148,9 @@ public final class Agents {
     public SuperAgent starter() throws IOException {
         return new SuperAgent.Iterative(
             new Array<>(
-                new StartsTalks(this.github),
+                new StartsTalks(this.github, this.notifications),
                 new Invitations(this.github),
-                new IndexesRequests(),
+                new IndexesRequests(this.sttc.counters().get("rt-index")),
                 new DockerExec(
                     new SSH(
                         // @checkstyle MagicNumber (1 line)
@@ -168,11 +173,9 @@ public final class Agents {
      * @throws IOException If fails
      */
     public SuperAgent closer() throws IOException {
-        return new SuperAgent.Iterative(
-            new Array<>(
-                new UnlocksRepo(this.sttc.locks(), this.github),
-                new DeactivatesTalks()
-            )
+        return new SuperAgent.Scan(
+            new UnlocksRepo(this.sttc.locks(), this.github),
+            new DeactivatesTalks()
         );
     }
 
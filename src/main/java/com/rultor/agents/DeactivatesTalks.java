@@ -31,18 +31,21 @@ package com.rultor.agents;
 
 import com.jcabi.aspects.Immutable;
 import com.jcabi.log.Logger;
-import com.jcabi.xml.XML;
+import com.rultor.spi.Agent;
 import com.rultor.spi.SuperAgent;
 import com.rultor.spi.Talk;
 import com.rultor.spi.Talks;
 import java.io.IOException;
+import java.util.Map;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
-import org.apache.commons.lang3.StringUtils;
 
 /**
  * Deactivates empty talks.
  *
+ * <p>It works with all active talks as a {@link SuperAgent}, or
+ * with one talk at a time, inside {@link SuperAgent.Scan}.</p>
+ *
  * @author Yegor Bugayenko (yegor256@gmail.com)
  * @version $Id$
  * @since 1.3
@@ -50,24 +53,30 @@ import org.apache.commons.lang3.StringUtils;
 @Immutable
 @ToString
 @EqualsAndHashCode
-public final class DeactivatesTalks implements SuperAgent {
+public final class DeactivatesTalks implements SuperAgent, Agent {
 
     /**
-     * Which talks should be deactivated.
+     * Path of the "later" flag.
      */
-    private static final String XPATH = StringUtils.join(
-        "/talk[@later='false' and not(request) and not(daemon)",
-        " and not(shell)]"
-    );
+    private static final String LATER = "/talk/@later";
 
     @Override
     public void execute(final Talks talks) throws IOException {
         for (final Talk talk : talks.active()) {
-            final XML xml = talk.read();
-            if (!xml.nodes(DeactivatesTalks.XPATH).isEmpty()) {
-                talk.active(false);
-                Logger.info(this, "%s deactivated", talk.name());
-            }
+            this.execute(talk);
+        }
+    }
+
+    @Override
+    public void execute(final Talk talk) throws IOException {
+        final Map<String, String> values = talk.project(
+            DeactivatesTalks.LATER, "/talk/request/@id",
+            "/talk/daemon/@id", "/talk/shell/@id"
+        );
+        if (values.size() == 1
+            && "false".equals(values.get(DeactivatesTalks.LATER))) {
+            talk.active(false);
+            Logger.info(this, "%s deactivated", talk.name());
         }
     }
 
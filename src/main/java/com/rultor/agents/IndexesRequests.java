@@ -29,10 +29,13 @@
  */
 package com.rultor.agents;
 
+import co.stateful.Counter;
 import com.rultor.spi.SuperAgent;
 import com.rultor.spi.Talk;
 import com.rultor.spi.Talks;
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.cactoos.collection.Mapped;
 import org.cactoos.list.SolidList;
 import org.cactoos.scalar.MaxOf;
@@ -42,62 +45,138 @@ import org.xembly.Directives;
 /**
  * Adds index to all the requests received.
  *
+ * <p>Indexes are taken from a persistent counter, in one pass through
+ * active talks, and only requests without indexes are touched. The
+ * counter is moved forward when the archive of the talk already has
+ * higher indexes.</p>
+ *
+ * <p>When the counter is empty, it starts from the highest index
+ * found in all active talks, once.</p>
+ *
  * @author Krzysztof Krason (Krzysztof.Krason@gmail.com)
  * @version $Id$
  */
 @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
 public final class IndexesRequests implements SuperAgent {
+
+    /**
+     * Path of the request ID.
+     */
+    private static final String ID = "/talk/request/@id";
+
+    /**
+     * Path of the request index.
+     */
+    private static final String INDEX = "/talk/request/@index";
+
+    /**
+     * All indexes of a talk.
+     */
+    private static final String ALL =
+        "/talk/archive/log/@index|/talk/request/@index";
+
+    /**
+     * Counter of indexes.
+     */
+    private final transient Counter counter;
+
+    /**
+     * Is the counter seeded already?
+     */
+    private final transient AtomicBoolean seeded;
+
+    /**
+     * Ctor.
+     * @param cntr Counter of indexes
+     */
+    public IndexesRequests(final Counter cntr) {
+        this.counter = cntr;
+        this.seeded = new AtomicBoolean();
+    }
+
     @Override
     public void execute(final Talks talks) throws IOException {
-        int idx = this.index(talks);
+        this.seed(talks);
         for (final Talk talk : talks.active()) {
-            idx += 1;
-            talk.modify(
-                new Directives()
-                    .xpath("/talk/request")
-                    .attr("index", Integer.toString(idx))
+            final Map<String, String> request = talk.project(
+                IndexesRequests.ID, IndexesRequests.INDEX
             );
+            if (request.containsKey(IndexesRequests.ID)
+                && !request.containsKey(IndexesRequests.INDEX)) {
+                talk.modify(
+                    new Directives()
+                        .xpath("/talk/request")
+                        .attr("index", Long.toString(this.next(talk)))
+                );
+            }
         }
     }
 
     /**
-     * Calculates maximal index value for a {@link Talks} object.
-     * @param talks The {@link Talks} object
-     * @return The maximal index value
-     * @throws IOException if the content of one {@link Talk} object can't be read
+     * Move the empty counter to the highest index of all active talks.
+     * @param talks Talks
+     * @throws IOException If fails
      */
-    private int index(final Talks talks) throws IOException {
-        int index = 0;
-        for (final Talk talk : talks.active()) {
-            final int idx = this.index(talk);
-            if (idx > index) {
-                index = idx;
+    private void seed(final Talks talks) throws IOException {
+        if (!this.seeded.get()) {
+            if (this.counter.incrementAndGet(0L) == 0L) {
+                long max = 0L;
+                for (final Talk talk : talks.active()) {
+                    max = Math.max(
+                        max, IndexesRequests.index(talk, IndexesRequests.ALL)
+                    );
+                }
+                if (max > 0L) {
+                    this.counter.incrementAndGet(max);
+                }
             }
+            this.seeded.set(true);
         }
-        return index;
+    }
+
+    /**
+     * Next index for the request of the talk.
+     * @param talk The talk
+     * @return Index, higher than all indexes in its archive
+     * @throws IOException If fails
+     */
+    private long next(final Talk talk) throws IOException {
+        final long last = IndexesRequests.index(
+            talk, "/talk/archive/log/@index"
+        );
+        long next = this.counter.incrementAndGet(1L);
+        if (next <= last) {
+            next = this.counter.incrementAndGet(last + 1L - next);
+        }
+        return next;
     }
 
     /**
      * Calculates maximal (existing) index value of a {@link Talk} object.
+     *
+     * <p>The most recent logs of the archive, which have the highest
+     * indexes, are always in {@link Talk#read()}, that's why
+     * the full archive is not needed here.</p>
+     *
      * @param talk The {@link Talk} object
+     * @param xpath XPath of indexes
      * @return The maximal index value
      * @throws IOException if the content of the {@link Talk} object can't be
      *  read
      */
-    @SuppressWarnings("PMD.AvoidCatchingThrowable")
-    private int index(final Talk talk) throws IOException {
+    private static long index(final Talk talk, final String xpath)
+        throws IOException {
         final SolidList<Number> indexes = new SolidList<>(
             new Mapped<>(
                 input -> new NumberOf(input),
-                talk.read()
-                    .xpath("/talk/archive/log/@index|/talk/request/@index")
+                talk.read().xpath(xpath)
             )
         );
-        final int index;
+        final long index;
         if (indexes.iterator().hasNext()) {
-            index = new MaxOf(indexes).intValue();
+            index = new MaxOf(indexes).longValue();
         } else {
-            index = 0;
+            index = 0L;
         }
         return index;
     }
@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.immutable.Array;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XPathContext;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.w3c.dom.Node;
+
+/**
+ * Preconditions of an agent, which are XPath expressions that all
+ * must match the XML of a talk.
+ *
+ * <p>Each expression is compiled only once per thread, with the
+ * same namespace prefixes as in {@link XML#xpath(String)}, like "xs".
+ * Results of evaluation are not remembered, since some expressions
+ * depend on the current time, like the one of
+ * {@link com.rultor.agents.daemons.KillsDaemon}, while the same
+ * document of a talk may be checked again and again.</p>
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = "xpaths")
+final class Preconditions {
+
+    /**
+     * Compiled expressions, per thread, since they are not thread-safe.
+     */
+    private static final ThreadLocal<Map<String, XPathExpression>> COMPILED =
+        ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * DOM nodes of documents, by document (identity).
+     */
+    private static final Cache<XML, Node> NODES =
+        CacheBuilder.newBuilder().weakKeys().build();
+
+    /**
+     * Encapsulated XPaths.
+     */
+    private final transient Array<String> xpaths;
+
+    /**
+     * Ctor.
+     * @param args XPath expressions
+     */
+    Preconditions(final String... args) {
+        this.xpaths = new Array<>(args);
+    }
+
+    /**
+     * Do all of them match the document?
+     * @param xml The document
+     * @return TRUE if all of them match
+     */
+    public boolean matched(final XML xml) {
+        boolean good = true;
+        if (!this.xpaths.isEmpty()) {
+            final Node node = Preconditions.fetch(
+                Preconditions.NODES, xml, xml::node
+            );
+            for (final String xpath : this.xpaths) {
+                good = Preconditions.matches(node, xpath);
+                if (!good) {
+                    break;
+                }
+            }
+        }
+        return good;
+    }
+
+    /**
+     * Does the expression match the node?
+     * @param node The node
+     * @param xpath The expression
+     * @return TRUE if it matches
+     */
+    private static boolean matches(final Node node, final String xpath) {
+        try {
+            return (Boolean) Preconditions.compiled(xpath).evaluate(
+                node, XPathConstants.BOOLEAN
+            );
+        } catch (final XPathExpressionException ex) {
+            throw new IllegalArgumentException(
+                String.format("invalid XPath expression \"%s\"", xpath),
+                ex
+            );
+        }
+    }
+
+    /**
+     * Compiled expression, for the current thread.
+     * @param xpath The expression
+     * @return Compiled one
+     * @throws XPathExpressionException If it can't be compiled
+     */
+    private static XPathExpression compiled(final String xpath)
+        throws XPathExpressionException {
+        final Map<String, XPathExpression> map = Preconditions.COMPILED.get();
+        XPathExpression expr = map.get(xpath);
+        if (expr == null) {
+            final XPath compiler = XPathFactory.newInstance().newXPath();
+            compiler.setNamespaceContext(new XPathContext());
+            expr = compiler.compile(xpath);
+            map.put(xpath, expr);
+        }
+        return expr;
+    }
+
+    /**
+     * Fetch from cache, loading if absent.
+     * @param cache The cache
+     * @param xml The document
+     * @param loader Loader of the value
+     * @param <T> Type of value
+     * @return The value
+     */
+    private static <T> T fetch(final Cache<XML, T> cache, final XML xml,
+        final Callable<T> loader) {
+        try {
+            return cache.get(xml, loader);
+        } catch (final ExecutionException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+}
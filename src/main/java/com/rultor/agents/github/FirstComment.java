@@ -29,10 +29,12 @@
  */
 package com.rultor.agents.github;
 
+import com.jcabi.aspects.Cacheable;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.github.Comment;
 import com.jcabi.github.Issue;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 import javax.json.Json;
 import javax.json.JsonObject;
 import javax.json.JsonObjectBuilder;
@@ -51,6 +53,11 @@ import lombok.ToString;
 @EqualsAndHashCode(of = "home")
 final class FirstComment implements Comment {
 
+    /**
+     * Attribute with the creation time.
+     */
+    private static final String CREATED = "created_at";
+
     /**
      * Home issue.
      */
@@ -89,22 +96,29 @@ final class FirstComment implements Comment {
         throw new UnsupportedOperationException("#patch()");
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The issue is fetched from Github only once, since its author,
+     * body and creation time are all needed when the comment is read.</p>
+     */
     @Override
+    @Cacheable(lifetime = 1, unit = TimeUnit.MINUTES)
     public JsonObject json() throws IOException {
+        final JsonObject issue = this.home.json();
         final JsonObjectBuilder json = Json.createObjectBuilder();
         json.add(
             "user",
             Json.createObjectBuilder().add(
-                "login", this.home.author().login()
+                "login", issue.getJsonObject("user").getString("login")
             )
         );
-        final String body;
-        if (this.home.hasBody()) {
-            body = this.home.body();
-        } else {
-            body = "";
+        json.add("body", issue.getString("body", ""));
+        if (issue.containsKey(FirstComment.CREATED)) {
+            json.add(
+                FirstComment.CREATED, issue.getString(FirstComment.CREATED)
+            );
         }
-        json.add("body", body);
         return json.build();
     }
 }
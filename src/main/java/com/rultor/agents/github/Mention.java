@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.github.Coordinates;
+import com.jcabi.log.Logger;
+import com.rultor.spi.Talk;
+import com.rultor.spi.Talks;
+import java.io.IOException;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.xembly.Directives;
+
+/**
+ * Mention of Rultor in a Github issue, which activates its talk.
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode
+public final class Mention {
+
+    /**
+     * Coordinates of the repository.
+     */
+    private final transient String repo;
+
+    /**
+     * Number of the issue.
+     */
+    private final transient int issue;
+
+    /**
+     * HTML URL of the issue.
+     */
+    private final transient String href;
+
+    /**
+     * Ctor.
+     * @param coords Coordinates of the repository
+     * @param number Number of the issue
+     * @param url HTML URL of the issue
+     */
+    public Mention(final Coordinates coords, final int number,
+        final String url) {
+        this.repo = coords.toString();
+        this.issue = number;
+        this.href = url;
+    }
+
+    /**
+     * Create the talk, if it's absent, and activate it.
+     *
+     * <p>If another node creates the same talk at the same time, its
+     * talk is activated.</p>
+     *
+     * @param talks Talks
+     * @return Name of the talk activated
+     * @throws IOException If fails
+     */
+    public String activate(final Talks talks) throws IOException {
+        final String name = String.format("%s#%d", this.repo, this.issue);
+        if (!talks.exists(name)) {
+            try {
+                talks.create(this.repo, name);
+            } catch (final IllegalArgumentException ex) {
+                if (!talks.exists(name)) {
+                    throw ex;
+                }
+                Logger.info(this, "talk %s was just created by someone", name);
+            }
+        }
+        final Talk talk = talks.get(name);
+        talk.modify(
+            new Directives()
+                .xpath("/talk").attr("later", Boolean.toString(true))
+                .xpath("/talk[not(wire)]")
+                .add("wire").add("href").set(this.href)
+                .up()
+                .add("github-repo").set(this.repo)
+                .up()
+                .add("github-issue")
+                .set(Integer.toString(this.issue))
+        );
+        talk.active(true);
+        Logger.info(
+            this, "talk %s#%d activated as %s",
+            this.repo, this.issue, name
+        );
+        return talk.name();
+    }
+
+}
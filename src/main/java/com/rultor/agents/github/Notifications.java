@@ -0,0 +1,387 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import co.stateful.Counter;
+import co.stateful.Sttc;
+import com.google.common.collect.EvictingQueue;
+import com.jcabi.aspects.Tv;
+import com.jcabi.github.Github;
+import com.jcabi.http.Request;
+import com.jcabi.http.Response;
+import com.jcabi.http.response.JsonResponse;
+import com.jcabi.http.response.RestResponse;
+import com.jcabi.http.response.WebLinkingResponse;
+import com.rultor.Time;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.lang3.time.DateFormatUtils;
+import org.hamcrest.Matchers;
+
+/**
+ * Poller of Github notifications.
+ *
+ * <p>The time of the latest notification seen is persisted in a
+ * counter and sent back to Github as "since" and "If-Modified-Since",
+ * together with the ETag of the previous response, so that nothing is
+ * fetched when nothing changed (responses with 304 don't count against
+ * the rate limit). Github is not asked again sooner than its
+ * "X-Poll-Interval" allows. Notifications already returned
+ * once are not returned again, until they are updated.</p>
+ *
+ * <p>Nothing is remembered, neither the time, nor the ETag, nor
+ * the notifications seen, until the caller of {@link #fresh()} confirms
+ * with {@link #commit()} that all of them are handled. If it fails
+ * in the middle, the same notifications are returned again, when
+ * the poll interval is over.</p>
+ *
+ * <p>The ETag, the poll interval and notifications seen are kept
+ * in memory, that's why the object has to live longer than one tick.
+ * After a restart a notification may be returned once again.</p>
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString(of = "github")
+@EqualsAndHashCode(of = { "github", "sttc" })
+public final class Notifications {
+
+    /**
+     * Name of the counter with the time of the latest notification.
+     */
+    private static final String CURSOR = "rt-notifications";
+
+    /**
+     * Poll interval, in seconds, if Github doesn't tell.
+     */
+    private static final long INTERVAL = 60L;
+
+    /**
+     * Github.
+     */
+    private final transient Github github;
+
+    /**
+     * Sttc, with the counter.
+     */
+    private final transient Sttc sttc;
+
+    /**
+     * ETag of the latest response.
+     */
+    private final transient AtomicReference<String> etag;
+
+    /**
+     * When Github may be asked again, in milliseconds.
+     */
+    private final transient AtomicLong next;
+
+    /**
+     * IDs and update times of notifications seen.
+     */
+    private final transient Queue<String> seen;
+
+    /**
+     * Notifications returned, but not committed yet.
+     */
+    private final transient AtomicReference<Notifications.Batch> batch;
+
+    /**
+     * Ctor.
+     * @param ghub Github client
+     * @param stc Sttc client
+     */
+    public Notifications(final Github ghub, final Sttc stc) {
+        this.github = ghub;
+        this.sttc = stc;
+        this.etag = new AtomicReference<>("");
+        this.next = new AtomicLong();
+        this.seen = EvictingQueue.create(Tv.THOUSAND);
+        this.batch = new AtomicReference<>();
+    }
+
+    /**
+     * Fetch notifications not seen yet.
+     *
+     * <p>They have to be committed by {@link #commit()} when handled.
+     * Notifications returned by the previous call and not committed
+     * are forgotten here, even if it's too early to ask Github again,
+     * so that {@link #commit()} never confirms what this call didn't
+     * return. They are returned again, when the poll interval is
+     * over.</p>
+     *
+     * @return Notifications, empty if it's too early to ask Github again
+     * @throws IOException If fails
+     */
+    public Iterable<JsonObject> fresh() throws IOException {
+        this.batch.set(null);
+        final Collection<JsonObject> fresh = new LinkedList<>();
+        final long now = System.currentTimeMillis();
+        if (now >= this.next.get()) {
+            final long since = this.cursor().incrementAndGet(0L);
+            final Response first = this.request(since).fetch();
+            this.next.set(now + Notifications.interval(first));
+            if (first.status() != HttpURLConnection.HTTP_NOT_MODIFIED) {
+                first.as(RestResponse.class)
+                    .assertStatus(HttpURLConnection.HTTP_OK);
+                final Collection<String> keys = new LinkedList<>();
+                long latest = since;
+                Response page = first;
+                while (page != null) {
+                    latest = Math.max(latest, this.add(page, fresh, keys));
+                    page = Notifications.after(page);
+                }
+                this.batch.set(
+                    new Notifications.Batch(
+                        Notifications.header(first, "ETag"), latest, keys
+                    )
+                );
+            }
+        }
+        return fresh;
+    }
+
+    /**
+     * Confirm that notifications returned by {@link #fresh()} are handled.
+     *
+     * <p>The time of the latest one is saved, they are not returned
+     * again and, if there were any, they are marked as read
+     * in Github.</p>
+     *
+     * @throws IOException If fails
+     */
+    public void commit() throws IOException {
+        final Notifications.Batch done = this.batch.getAndSet(null);
+        if (done != null) {
+            synchronized (this.seen) {
+                this.seen.addAll(done.keys);
+            }
+            final Counter cursor = this.cursor();
+            final long since = cursor.incrementAndGet(0L);
+            if (done.time > since) {
+                cursor.incrementAndGet(done.time - since);
+            }
+            this.etag.set(done.tag);
+            if (!done.keys.isEmpty()) {
+                this.read(done.time);
+            }
+        }
+    }
+
+    /**
+     * Mark all notifications as read, up to the time.
+     *
+     * <p>Github answers either 202 or 205 here, any success is fine.</p>
+     *
+     * @param time Time of the latest notification handled
+     * @throws IOException If fails
+     */
+    private void read(final long time) throws IOException {
+        this.github.entry()
+            .uri().path("/notifications")
+            .queryParam("last_read_at", new Time(time).iso())
+            .back()
+            .method(Request.PUT)
+            .body().set("{}").back()
+            .fetch()
+            .as(RestResponse.class)
+            .assertStatus(
+                Matchers.allOf(
+                    Matchers.greaterThanOrEqualTo(HttpURLConnection.HTTP_OK),
+                    Matchers.lessThan(HttpURLConnection.HTTP_MULT_CHOICE)
+                )
+            );
+    }
+
+    /**
+     * Conditional request of notifications.
+     * @param since Time of the latest notification seen
+     * @return Request
+     */
+    private Request request(final long since) {
+        Request req = this.github.entry()
+            .uri().path("/notifications")
+            .queryParam("participating", "true")
+            .queryParam("all", Boolean.toString(true))
+            .back();
+        if (since > 0L) {
+            req = req.uri().queryParam("since", new Time(since).iso()).back()
+                .header(
+                    "If-Modified-Since",
+                    DateFormatUtils.formatUTC(
+                        new Date(since), "EEE, dd MMM yyyy HH:mm:ss 'GMT'",
+                        Locale.ENGLISH
+                    )
+                );
+        }
+        if (!this.etag.get().isEmpty()) {
+            req = req.header("If-None-Match", this.etag.get());
+        }
+        return req;
+    }
+
+    /**
+     * Add notifications from the page, which were not seen yet.
+     * @param rsp Response with the page
+     * @param fresh Notifications to add to
+     * @param keys IDs and update times of them, to add to
+     * @return Time of the latest notification on the page
+     * @throws IOException If fails
+     */
+    private long add(final Response rsp, final Collection<JsonObject> fresh,
+        final Collection<String> keys) throws IOException {
+        long latest = 0L;
+        for (final JsonValue value : rsp.as(RestResponse.class)
+            .assertStatus(HttpURLConnection.HTTP_OK)
+            .as(JsonResponse.class).json().readArray()) {
+            final JsonObject event = JsonObject.class.cast(value);
+            final String updated = event.getString("updated_at");
+            final String key = String.format(
+                "%s %s", event.getString("id"), updated
+            );
+            final boolean old;
+            synchronized (this.seen) {
+                old = this.seen.contains(key);
+            }
+            if (!old) {
+                keys.add(key);
+                fresh.add(event);
+            }
+            latest = Math.max(latest, Instant.parse(updated).toEpochMilli());
+        }
+        return latest;
+    }
+
+    /**
+     * Next page of notifications.
+     * @param rsp Response with the page
+     * @return Next page or NULL if it's the last one
+     * @throws IOException If fails
+     */
+    private static Response after(final Response rsp) throws IOException {
+        final WebLinkingResponse.Link link =
+            new WebLinkingResponse(rsp).links().get("next");
+        final Response next;
+        if (link == null) {
+            next = null;
+        } else {
+            next = rsp.as(RestResponse.class).jump(link.uri()).fetch();
+        }
+        return next;
+    }
+
+    /**
+     * Counter with the time of the latest notification seen.
+     * @return Counter
+     * @throws IOException If fails
+     */
+    private Counter cursor() throws IOException {
+        return this.sttc.counters().get(Notifications.CURSOR);
+    }
+
+    /**
+     * Poll interval requested by Github.
+     * @param rsp Response
+     * @return Milliseconds
+     */
+    private static long interval(final Response rsp) {
+        final String header = Notifications.header(rsp, "X-Poll-Interval");
+        long sec = Notifications.INTERVAL;
+        if (header.matches("[0-9]+")) {
+            sec = Long.parseLong(header);
+        }
+        return TimeUnit.SECONDS.toMillis(sec);
+    }
+
+    /**
+     * Value of a header of the response.
+     * @param rsp Response
+     * @param name Name of the header
+     * @return Value or empty
+     */
+    private static String header(final Response rsp, final String name) {
+        String value = "";
+        for (final Map.Entry<String, List<String>> ent
+            : rsp.headers().entrySet()) {
+            if (name.equalsIgnoreCase(ent.getKey())
+                && !ent.getValue().isEmpty()) {
+                value = ent.getValue().get(0);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Notifications returned, but not committed yet.
+     */
+    private static final class Batch {
+        /**
+         * ETag of the response.
+         */
+        private final transient String tag;
+        /**
+         * Time of the latest notification.
+         */
+        private final transient long time;
+        /**
+         * IDs and update times of notifications.
+         */
+        private final transient Collection<String> keys;
+        /**
+         * Ctor.
+         * @param etag ETag of the response
+         * @param latest Time of the latest notification
+         * @param list IDs and update times of notifications
+         */
+        Batch(final String etag, final long latest,
+            final Collection<String> list) {
+            this.tag = etag;
+            this.time = latest;
+            this.keys = list;
+        }
+    }
+
+}
@@ -120,6 +120,6 @@ public final class RepoLock {
      * @throws IOException If fails
      */
     private static String label(final Talk talk) throws IOException {
-        return talk.read().xpath("/talk/@name").get(0);
+        return talk.name();
     }
 }
@@ -29,30 +29,19 @@
  */
 package com.rultor.agents.github;
 
-import com.jcabi.aspects.Immutable;
-import com.jcabi.aspects.Tv;
 import com.jcabi.github.Coordinates;
 import com.jcabi.github.Github;
 import com.jcabi.github.Issue;
-import com.jcabi.github.RtPagination;
-import com.jcabi.http.Request;
-import com.jcabi.http.response.RestResponse;
 import com.jcabi.log.Logger;
-import com.rultor.Time;
 import com.rultor.spi.SuperAgent;
-import com.rultor.spi.Talk;
 import com.rultor.spi.Talks;
 import java.io.IOException;
-import java.net.HttpURLConnection;
 import java.util.Collection;
-import java.util.Date;
 import java.util.LinkedList;
 import javax.json.JsonObject;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.time.DateUtils;
-import org.xembly.Directives;
 
 /**
  * Starts talk when I'm mentioned in a Github issue.
@@ -61,8 +50,7 @@ import org.xembly.Directives;
  * @version $Id$
  * @since 1.0
  */
-@Immutable
-@ToString
+@ToString(of = "github")
 @EqualsAndHashCode(of = "github")
 public final class StartsTalks implements SuperAgent {
 
@@ -71,43 +59,31 @@ public final class StartsTalks implements SuperAgent {
      */
     private final transient Github github;
 
+    /**
+     * Notifications.
+     */
+    private final transient Notifications notifications;
+
     /**
      * Ctor.
      * @param ghub Github client
+     * @param ntf Notifications of the Github client
      */
-    public StartsTalks(final Github ghub) {
+    public StartsTalks(final Github ghub, final Notifications ntf) {
         this.github = ghub;
+        this.notifications = ntf;
     }
 
     @Override
-    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
     public void execute(final Talks talks) throws IOException {
-        final String since = new Time(
-            DateUtils.addMinutes(new Date(), -Tv.THREE)
-        ).iso();
-        final Request req = this.github.entry()
-            .uri().path("/notifications").back();
-        final Iterable<JsonObject> events = new RtPagination<>(
-            req.uri().queryParam("participating", "true")
-                .queryParam("since", since)
-                .queryParam("all", Boolean.toString(true))
-                .back(),
-            RtPagination.COPYING
-        );
         final Collection<String> names = new LinkedList<>();
-        for (final JsonObject event : events) {
+        for (final JsonObject event : this.notifications.fresh()) {
             final String reason = event.getString("reason");
             if ("mention".equals(reason)) {
                 names.add(this.activate(talks, event));
             }
         }
-        req.uri()
-            .queryParam("last_read_at", since).back()
-            .method(Request.PUT)
-            .body().set("{}").back()
-            .fetch()
-            .as(RestResponse.class)
-            .assertStatus(HttpURLConnection.HTTP_RESET);
+        this.notifications.commit();
         Logger.info(
             this, "%d new notification(s): %[list]s",
             names.size(), names
@@ -132,29 +108,10 @@ public final class StartsTalks implements SuperAgent {
                 )
             )
         );
-        final String name = String.format("%s#%d", coords, issue.number());
-        if (!talks.exists(name)) {
-            talks.create(coords.toString(), name);
-        }
-        final Talk talk = talks.get(name);
-        talk.modify(
-            new Directives()
-                .xpath("/talk").attr("later", Boolean.toString(true))
-                .xpath("/talk[not(wire)]")
-                .add("wire").add("href")
-                .set(new Issue.Smart(issue).htmlUrl().toString())
-                .up()
-                .add("github-repo").set(coords.toString())
-                .up()
-                .add("github-issue")
-                .set(Integer.toString(issue.number()))
-        );
-        talk.active(true);
-        Logger.info(
-            this, "talk %s#%d activated as %s",
-            coords, issue.number(), name
-        );
-        return talk.name();
+        return new Mention(
+            coords, issue.number(),
+            new Issue.Smart(issue).htmlUrl().toString()
+        ).activate(talks);
     }
 
     /**
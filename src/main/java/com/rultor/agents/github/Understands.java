@@ -41,6 +41,7 @@ import com.rultor.agents.AbstractAgent;
 import com.rultor.agents.daemons.Home;
 import com.rultor.spi.Profile;
 import java.io.IOException;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
@@ -79,6 +80,11 @@ public final class Understands extends AbstractAgent {
     private static final ResourceBundle PHRASES =
         ResourceBundle.getBundle("phrases");
 
+    /**
+     * Attribute with the creation time of a comment.
+     */
+    private static final String CREATED = "created_at";
+
     /**
      * Github.
      */
@@ -108,16 +114,16 @@ public final class Understands extends AbstractAgent {
     @Override
     public Iterable<Directive> process(final XML xml) throws IOException {
         final Issue.Smart issue = new TalkIssues(this.github, xml).get();
+        final int seen = Understands.seen(xml);
         final Iterator<Comment.Smart> comments = new SafeIterator<>(
             new Smarts<Comment.Smart>(
-                new Joined<Comment>(
-                    Collections.singleton(new FirstComment(issue)),
-                    new Bulk<>(issue.comments().iterate(new Date(0L)))
-                )
+                Understands.comments(issue, seen, Understands.since(xml))
             ).iterator()
         );
-        final int seen = Understands.seen(xml);
+        final boolean known = !xml.nodes("/talk/wire/github-seen-at")
+            .isEmpty();
         int next = seen;
+        String stamp = "";
         int fresh = 0;
         int total = 0;
         Req req = Req.EMPTY;
@@ -125,6 +131,9 @@ public final class Understands extends AbstractAgent {
             final Comment.Smart comment = comments.next();
             ++total;
             if (comment.number() <= seen) {
+                if (!known) {
+                    stamp = comment.json().getString(Understands.CREATED, "");
+                }
                 continue;
             }
             ++fresh;
@@ -133,6 +142,7 @@ public final class Understands extends AbstractAgent {
                 break;
             }
             next = comment.number();
+            stamp = comment.json().getString(Understands.CREATED, "");
             if (!req.equals(Req.EMPTY)) {
                 break;
             }
@@ -179,6 +189,11 @@ public final class Understands extends AbstractAgent {
                 .addIf("github-seen")
                 .set(Integer.toString(next));
         }
+        if (!stamp.isEmpty()) {
+            dirs.xpath("/talk/wire")
+                .addIf("github-seen-at")
+                .set(stamp);
+        }
         return dirs.xpath("/talk")
             .attr("later", Boolean.toString(!req.equals(Req.EMPTY)));
     }
@@ -211,6 +226,53 @@ public final class Understands extends AbstractAgent {
         return req;
     }
 
+    /**
+     * Comments, which may be not seen yet.
+     *
+     * <p>Only comments updated since the last seen one was created are
+     * fetched from Github. The first comment, which is the body
+     * of the issue, is needed only if nothing is seen yet.</p>
+     *
+     * @param issue The issue
+     * @param seen Number of the last seen comment
+     * @param since When the last seen comment was created
+     * @return Comments
+     */
+    private static Iterable<Comment> comments(final Issue.Smart issue,
+        final int seen, final Date since) {
+        final Iterable<Comment> bulk = new Bulk<>(
+            issue.comments().iterate(since)
+        );
+        final Iterable<Comment> comments;
+        if (seen == 0) {
+            comments = new Joined<Comment>(
+                Collections.singleton(new FirstComment(issue)), bulk
+            );
+        } else {
+            comments = bulk;
+        }
+        return comments;
+    }
+
+    /**
+     * Creation time of the last seen message.
+     * @param xml XML
+     * @return Time, or the epoch if it's unknown
+     */
+    private static Date since(final XML xml) {
+        final Date since;
+        if (xml.nodes("/talk/wire/github-seen-at").isEmpty()) {
+            since = new Date(0L);
+        } else {
+            since = Date.from(
+                Instant.parse(
+                    xml.xpath("/talk/wire/github-seen-at/text()").get(0)
+                )
+            );
+        }
+        return since;
+    }
+
     /**
      * Last seen message.
      * @param xml XML
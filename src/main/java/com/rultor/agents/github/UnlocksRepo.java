@@ -31,21 +31,25 @@ package com.rultor.agents.github;
 
 import co.stateful.Locks;
 import com.jcabi.aspects.Immutable;
+import com.jcabi.github.Coordinates;
 import com.jcabi.github.Github;
-import com.jcabi.github.Issue;
+import com.jcabi.github.Repo;
 import com.jcabi.log.Logger;
-import com.jcabi.xml.XML;
+import com.rultor.spi.Agent;
 import com.rultor.spi.SuperAgent;
 import com.rultor.spi.Talk;
 import com.rultor.spi.Talks;
 import java.io.IOException;
+import java.util.Map;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
-import org.apache.commons.lang3.StringUtils;
 
 /**
  * Unlocks repo.
  *
+ * <p>It works with all active talks as a {@link SuperAgent}, or
+ * with one talk at a time, inside {@link SuperAgent.Scan}.</p>
+ *
  * @author Yegor Bugayenko (yegor256@gmail.com)
  * @version $Id$
  * @since 1.8.12
@@ -53,15 +57,17 @@ import org.apache.commons.lang3.StringUtils;
 @Immutable
 @ToString
 @EqualsAndHashCode(of = { "locks", "github" })
-public final class UnlocksRepo implements SuperAgent {
+public final class UnlocksRepo implements SuperAgent, Agent {
+
+    /**
+     * Path of the repository.
+     */
+    private static final String REPO = "/talk/wire/github-repo";
 
     /**
-     * Which talks should be unlocked.
+     * Path of the issue.
      */
-    private static final String XPATH = StringUtils.join(
-        "/talk[not(request) and not(daemon) and not(shell)",
-        " and wire/github-repo and wire/github-issue]"
-    );
+    private static final String ISSUE = "/talk/wire/github-issue";
 
     /**
      * Locks.
@@ -86,23 +92,25 @@ public final class UnlocksRepo implements SuperAgent {
     @Override
     public void execute(final Talks talks) throws IOException {
         for (final Talk talk : talks.active()) {
-            this.unlock(talk);
+            this.execute(talk);
         }
     }
 
-    /**
-     * Unlock.
-     * @param talk Talk
-     * @throws IOException If fails
-     */
-    private void unlock(final Talk talk) throws IOException {
-        final XML xml = talk.read();
-        if (!xml.nodes(UnlocksRepo.XPATH).isEmpty()) {
-            final Issue issue = new TalkIssues(this.github, talk.read()).get();
-            if (new RepoLock(this.locks, issue.repo()).unlock(talk)) {
+    @Override
+    public void execute(final Talk talk) throws IOException {
+        final Map<String, String> values = talk.project(
+            UnlocksRepo.REPO, UnlocksRepo.ISSUE, "/talk/request/@id",
+            "/talk/daemon/@id", "/talk/shell/@id"
+        );
+        if (values.size() == 2 && values.containsKey(UnlocksRepo.REPO)
+            && values.containsKey(UnlocksRepo.ISSUE)) {
+            final Repo repo = this.github.repos().get(
+                new Coordinates.Simple(values.get(UnlocksRepo.REPO))
+            );
+            if (new RepoLock(this.locks, repo).unlock(talk)) {
                 Logger.info(
                     this, "%s unlocked by %s",
-                    issue.repo().coordinates(), talk.name()
+                    repo.coordinates(), talk.name()
                 );
             }
         }
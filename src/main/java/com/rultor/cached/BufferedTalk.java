@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.cached;
+
+import com.jcabi.xml.StrictXML;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import com.rultor.spi.Projection;
+import com.rultor.spi.Talk;
+import java.io.IOException;
+import java.util.Date;
+import java.util.Map;
+import lombok.ToString;
+import org.w3c.dom.Node;
+import org.xembly.Directive;
+import org.xembly.Directives;
+import org.xembly.ImpossibleModificationException;
+import org.xembly.Xembler;
+
+/**
+ * Talk, which is read once and written once.
+ *
+ * <p>The XML of the talk is read from the origin on the first call to
+ * {@link #read()} and stays in memory. All modifications are applied to
+ * the XML in memory and are collected, in order to be sent to the origin
+ * together, as one modification, by {@link #flush()}.</p>
+ *
+ * <p>The class is not thread-safe, it is supposed to be used by one
+ * thread processing one talk during one tick.</p>
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString(of = "origin")
+public final class BufferedTalk implements Talk {
+
+    /**
+     * Origin talk.
+     */
+    private final transient Talk origin;
+
+    /**
+     * Modifications not flushed yet.
+     */
+    private transient Directives pending;
+
+    /**
+     * XML in memory, or NULL if not read yet.
+     */
+    private transient XML xml;
+
+    /**
+     * Ctor.
+     * @param talk Talk
+     */
+    public BufferedTalk(final Talk talk) {
+        this.origin = talk;
+        this.pending = new Directives();
+    }
+
+    @Override
+    public Long number() throws IOException {
+        return this.origin.number();
+    }
+
+    @Override
+    public String name() throws IOException {
+        return this.origin.name();
+    }
+
+    @Override
+    public Date updated() throws IOException {
+        return this.origin.updated();
+    }
+
+    @Override
+    public XML read() throws IOException {
+        if (this.xml == null) {
+            this.xml = this.origin.read();
+        }
+        return this.xml;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>If the XML is in memory already, the values are found there,
+     * otherwise they are read from the origin.</p>
+     */
+    @Override
+    public Map<String, String> project(final String... paths)
+        throws IOException {
+        final Map<String, String> values;
+        if (this.xml == null) {
+            values = this.origin.project(paths);
+        } else {
+            values = new Projection(paths).apply(this.xml.node());
+        }
+        return values;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Modifications which are not flushed yet are applied to it.</p>
+     */
+    @Override
+    public XML full() throws IOException {
+        final Node node = this.origin.full().node();
+        new Xembler(this.pending).applyQuietly(node);
+        return new XMLDocument(node);
+    }
+
+    @Override
+    public void modify(final Iterable<Directive> dirs) throws IOException {
+        if (dirs.iterator().hasNext()) {
+            final XML before = this.read();
+            final Node node = before.node();
+            try {
+                new Xembler(dirs).apply(node);
+            } catch (final ImpossibleModificationException ex) {
+                throw new IllegalStateException(
+                    String.format(
+                        "failed to apply %s to %s",
+                        dirs.toString(), before
+                    ),
+                    ex
+                );
+            }
+            this.xml = new StrictXML(new XMLDocument(node), Talk.SCHEMA);
+            this.pending.xpath("/").append(dirs);
+        }
+    }
+
+    @Override
+    public void active(final boolean yes) throws IOException {
+        this.origin.active(yes);
+    }
+
+    /**
+     * Send all modifications to the origin talk, as one modification.
+     * @throws IOException If fails
+     */
+    public void flush() throws IOException {
+        if (this.pending.iterator().hasNext()) {
+            this.origin.modify(this.pending);
+            this.pending = new Directives();
+        }
+    }
+
+}
@@ -29,12 +29,12 @@
  */
 package com.rultor.cached;
 
-import com.jcabi.aspects.Cacheable;
-import com.jcabi.aspects.Immutable;
 import com.jcabi.xml.XML;
+import com.rultor.spi.Projection;
 import com.rultor.spi.Talk;
 import java.io.IOException;
 import java.util.Date;
+import java.util.Map;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.xembly.Directive;
@@ -42,12 +42,15 @@ import org.xembly.Directive;
 /**
  * Cached talk.
  *
+ * <p>Its XML and the date of update are kept in the {@link TalkCache}.
+ * Modifications go straight to the original talk and make the cache
+ * forget only this talk.</p>
+ *
  * @author Yegor Bugayenko (yegor256@gmail.com)
  * @version $Id$
  * @since 1.51
  */
-@Immutable
-@ToString
+@ToString(of = "origin")
 @EqualsAndHashCode(of = "origin")
 public final class CdTalk implements Talk {
     /**
@@ -55,48 +58,75 @@ public final class CdTalk implements Talk {
      */
     private final transient Talk origin;
 
+    /**
+     * Cache.
+     */
+    private final transient TalkCache cache;
+
     /**
      * Ctor.
      * @param talk Talks
+     * @param che Cache
      */
-    CdTalk(final Talk talk) {
+    CdTalk(final Talk talk, final TalkCache che) {
         this.origin = talk;
+        this.cache = che;
     }
 
     @Override
-    @Cacheable
     public Long number() throws IOException {
         return this.origin.number();
     }
 
     @Override
-    @Cacheable
     public String name() throws IOException {
         return this.origin.name();
     }
 
     @Override
-    @Cacheable
     public Date updated() throws IOException {
-        return this.origin.updated();
+        return this.cache.updated(this.origin.name(), this.origin);
     }
 
     @Override
-    @Cacheable
     public XML read() throws IOException {
-        return this.origin.read();
+        return this.cache.xml(this.origin.name(), this.origin);
+    }
+
+    @Override
+    public Map<String, String> project(final String... paths)
+        throws IOException {
+        final XML xml = this.cache.peek(this.origin.name());
+        final Map<String, String> values;
+        if (xml == null) {
+            values = this.origin.project(paths);
+        } else {
+            values = new Projection(paths).apply(xml.node());
+        }
+        return values;
+    }
+
+    @Override
+    public XML full() throws IOException {
+        return this.origin.full();
     }
 
     @Override
-    @Cacheable.FlushBefore
     public void modify(final Iterable<Directive> dirs) throws IOException {
-        this.origin.modify(dirs);
+        try {
+            this.origin.modify(dirs);
+        } finally {
+            this.cache.invalidate(this.origin.name());
+        }
     }
 
     @Override
-    @Cacheable.FlushBefore
     public void active(final boolean yes) throws IOException {
-        this.origin.active(yes);
+        try {
+            this.origin.active(yes);
+        } finally {
+            this.cache.invalidate(this.origin.name());
+        }
     }
 
 }
@@ -29,106 +29,158 @@
  */
 package com.rultor.cached;
 
-import com.jcabi.aspects.Cacheable;
-import com.jcabi.aspects.Immutable;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.jcabi.aspects.Tv;
+import com.jcabi.log.Logger;
+import com.rultor.spi.Page;
+import com.rultor.spi.Shard;
 import com.rultor.spi.Talk;
 import com.rultor.spi.Talks;
 import java.io.IOException;
-import java.util.Date;
 import java.util.concurrent.TimeUnit;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.cactoos.iterable.Mapped;
+import org.cactoos.list.SolidList;
 
 /**
  * Cached talks.
  *
+ * <p>Lists of active talks and siblings are not cached, since they
+ * change all the time, but the talks in them are.</p>
+ *
+ * <p>Statistics of the cache (hits, misses and evictions) are logged
+ * every time the routine asks for the active talks of its shard,
+ * which happens once per tick.</p>
+ *
  * @author Yegor Bugayenko (yegor256@gmail.com)
  * @version $Id$
  * @since 1.51
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
  */
-@Immutable
-@ToString
+@ToString(of = { "origin", "cache" })
 @EqualsAndHashCode(of = "origin")
 @SuppressWarnings("PMD.TooManyMethods")
 public final class CdTalks implements Talks {
 
+    /**
+     * Maximum total size of XML documents in the cache, in chars.
+     */
+    private static final long MAX = (long) Tv.THIRTY << Tv.TWENTY;
+
     /**
      * Original talks.
      */
     private final transient Talks origin;
 
+    /**
+     * Cache.
+     */
+    private final transient TalkCache cache;
+
+    /**
+     * Recent talks.
+     */
+    private final transient Supplier<Iterable<Talk>> rcnt;
+
     /**
      * Public ctor.
      * @param talks Talks
      */
     public CdTalks(final Talks talks) {
+        this(talks, new TalkCache(CdTalks.MAX));
+    }
+
+    /**
+     * Public ctor.
+     * @param talks Talks
+     * @param che Cache
+     */
+    public CdTalks(final Talks talks, final TalkCache che) {
         this.origin = talks;
+        this.cache = che;
+        this.rcnt = Suppliers.memoizeWithExpiration(
+            () -> new SolidList<>(this.cached(this.origin.recent())),
+            (long) Tv.TWENTY, TimeUnit.MINUTES
+        );
     }
 
     @Override
-    @Cacheable
     public boolean exists(final long number) {
-        return this.origin.exists(number);
+        return this.cache.has(number) || this.origin.exists(number);
     }
 
     @Override
-    @Cacheable
     public Talk get(final long number) {
-        return this.origin.get(number);
+        return this.cache.talk(
+            number, () -> new CdTalk(this.origin.get(number), this.cache)
+        );
     }
 
     @Override
-    @Cacheable
     public boolean exists(final String name) {
-        return this.origin.exists(name);
+        return this.cache.has(name) || this.origin.exists(name);
     }
 
     @Override
-    @Cacheable
     public Talk get(final String name) {
-        return this.origin.get(name);
+        return this.cache.talk(
+            name, () -> new CdTalk(this.origin.get(name), this.cache)
+        );
     }
 
     @Override
-    @Cacheable.FlushBefore
     public void delete(final String name) {
-        this.origin.delete(name);
+        try {
+            this.origin.delete(name);
+        } finally {
+            this.cache.delete(name);
+        }
     }
 
     @Override
-    @Cacheable.FlushBefore
     public void create(final String repo, final String name)
         throws IOException {
         this.origin.create(repo, name);
     }
 
     @Override
-    @Cacheable
     public Iterable<Talk> active() {
-        return new Mapped<>(
-            input -> new CdTalk(input),
-            this.origin.active()
-        );
+        return this.cached(this.origin.active());
+    }
+
+    @Override
+    public Iterable<Talk> active(final Shard shard) {
+        Logger.info(this, "cache of talks: %s", this.cache);
+        return this.cached(this.origin.active(shard));
     }
 
     @Override
-    @Cacheable(lifetime = Tv.TWENTY, unit = TimeUnit.MINUTES)
     public Iterable<Talk> recent() {
-        return new Mapped<>(
-            input -> new CdTalk(input),
-            this.origin.recent()
-        );
+        return this.rcnt.get();
     }
 
     @Override
-    @Cacheable
-    public Iterable<Talk> siblings(final String repo, final Date since) {
-        return new Mapped<>(
-            input -> new CdTalk(input),
-            this.origin.siblings(repo, since)
-        );
+    public Page recent(final String cursor, final int size)
+        throws IOException {
+        final Page page = this.origin.recent(cursor, size);
+        return new Page(this.cached(page), page.next());
+    }
+
+    @Override
+    public Page siblings(final String repo, final String cursor,
+        final int size) throws IOException {
+        final Page page = this.origin.siblings(repo, cursor, size);
+        return new Page(this.cached(page), page.next());
+    }
+
+    /**
+     * Wrap talks into cached ones.
+     * @param talks Talks
+     * @return Cached talks
+     */
+    private Iterable<Talk> cached(final Iterable<Talk> talks) {
+        return new Mapped<>(input -> new CdTalk(input, this.cache), talks);
     }
 }
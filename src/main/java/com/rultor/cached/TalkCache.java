@@ -0,0 +1,213 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.cached;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.jcabi.aspects.Tv;
+import com.jcabi.log.Logger;
+import com.jcabi.xml.XML;
+import com.rultor.spi.Talk;
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of talks, by their names.
+ *
+ * <p>XML documents of talks and their dates are kept for a minute at
+ * most, since other nodes may modify the talks too. They are forgotten
+ * earlier when the talks are modified here, or when the total size of
+ * all documents goes over the limit, and the least recently used ones
+ * are evicted. Talks found by their names or numbers are kept for
+ * a minute too, since they don't change, but may be deleted.</p>
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class TalkCache {
+
+    /**
+     * XML documents of talks, by names.
+     */
+    private final transient Cache<String, XML> xmls;
+
+    /**
+     * Dates of last update, by names.
+     */
+    private final transient Cache<String, Date> dates;
+
+    /**
+     * Talks, by names and numbers.
+     */
+    private final transient Cache<Object, Talk> talks;
+
+    /**
+     * Ctor.
+     * @param chars Maximum total size of all XML documents, in chars
+     */
+    public TalkCache(final long chars) {
+        this.xmls = CacheBuilder.newBuilder()
+            .maximumWeight(chars)
+            .<String, XML>weigher((name, xml) -> xml.toString().length())
+            .expireAfterWrite(1L, TimeUnit.MINUTES)
+            .recordStats()
+            .build();
+        this.dates = CacheBuilder.newBuilder()
+            .maximumSize((long) Tv.THOUSAND)
+            .expireAfterWrite(1L, TimeUnit.MINUTES)
+            .build();
+        this.talks = CacheBuilder.newBuilder()
+            .maximumSize((long) Tv.THOUSAND)
+            .expireAfterWrite(1L, TimeUnit.MINUTES)
+            .build();
+    }
+
+    @Override
+    public String toString() {
+        final CacheStats stats = this.stats();
+        return Logger.format(
+            "%d talks, %d hits, %d misses, %d evictions",
+            this.xmls.size(), stats.hitCount(), stats.missCount(),
+            stats.evictionCount()
+        );
+    }
+
+    /**
+     * Statistics of XML documents.
+     * @return Stats
+     */
+    public CacheStats stats() {
+        return this.xmls.stats();
+    }
+
+    /**
+     * XML of the talk.
+     * @param name Name of the talk
+     * @param talk The talk, to read it from, if it's not in the cache
+     * @return XML
+     * @throws IOException If fails
+     */
+    public XML xml(final String name, final Talk talk) throws IOException {
+        return TalkCache.fetch(this.xmls, name, talk::read);
+    }
+
+    /**
+     * XML of the talk, only if it's in the cache.
+     * @param name Name of the talk
+     * @return XML or NULL if it's not in the cache
+     */
+    public XML peek(final String name) {
+        return this.xmls.getIfPresent(name);
+    }
+
+    /**
+     * When the talk was updated.
+     * @param name Name of the talk
+     * @param talk The talk, to read it from, if it's not in the cache
+     * @return Date
+     * @throws IOException If fails
+     */
+    public Date updated(final String name, final Talk talk)
+        throws IOException {
+        return TalkCache.fetch(this.dates, name, talk::updated);
+    }
+
+    /**
+     * Talk by its name or number.
+     * @param key Name or number
+     * @param loader Loader of the talk, if it's not in the cache
+     * @return Talk
+     */
+    public Talk talk(final Object key, final Callable<Talk> loader) {
+        try {
+            return TalkCache.fetch(this.talks, key, loader);
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Is the talk in the cache?
+     * @param key Name or number
+     * @return TRUE if it's there
+     */
+    public boolean has(final Object key) {
+        return this.talks.getIfPresent(key) != null;
+    }
+
+    /**
+     * Forget what we know about the content of the talk.
+     * @param name Name of the talk
+     */
+    public void invalidate(final String name) {
+        this.xmls.invalidate(name);
+        this.dates.invalidate(name);
+    }
+
+    /**
+     * Forget the talk completely.
+     * @param name Name of the talk
+     */
+    public void delete(final String name) {
+        this.invalidate(name);
+        this.talks.invalidateAll();
+    }
+
+    /**
+     * Fetch from the cache or load.
+     * @param cache The cache
+     * @param key The key
+     * @param loader Loader
+     * @param <K> Type of key
+     * @param <V> Type of value
+     * @return The value
+     * @throws IOException If fails
+     */
+    private static <K, V> V fetch(final Cache<K, V> cache, final K key,
+        final Callable<V> loader) throws IOException {
+        try {
+            return cache.get(key, loader);
+        } catch (final ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (final UncheckedExecutionException ex) {
+            throw (RuntimeException) ex.getCause();
+        }
+    }
+
+}
@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.changes;
+
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import com.rultor.spi.Projection;
+import com.rultor.spi.Talk;
+import java.io.IOException;
+import java.util.Date;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.w3c.dom.Node;
+import org.xembly.Directive;
+import org.xembly.Directives;
+import org.xembly.ImpossibleModificationException;
+import org.xembly.Xembler;
+
+/**
+ * Talk, which reports its changes to a sink.
+ *
+ * <p>Key fields before and after a modification are taken from the
+ * document the current thread read last, with the directives applied
+ * to it, since the directives were made for that document. The talk
+ * is asked for them only if the thread didn't read it.</p>
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString(of = "origin")
+@EqualsAndHashCode(of = "origin")
+public final class ChTalk implements Talk {
+
+    /**
+     * Key fields of talks, reported before and after changes.
+     */
+    static final String[] KEYS = {
+        "/talk/@later",
+        "/talk/wire/href",
+        "/talk/request/@id",
+        "/talk/request/@index",
+        "/talk/daemon/@id",
+        "/talk/shell/@id",
+    };
+
+    /**
+     * Origin talk.
+     */
+    private final transient Talk origin;
+
+    /**
+     * Sink of changes.
+     */
+    private final transient Sink sink;
+
+    /**
+     * Document, which the current thread read or wrote last, or NULL.
+     */
+    private final transient ThreadLocal<XML> seen;
+
+    /**
+     * Ctor.
+     * @param talk Talk
+     * @param snk Sink of changes
+     */
+    ChTalk(final Talk talk, final Sink snk) {
+        this.origin = talk;
+        this.sink = snk;
+        this.seen = new ThreadLocal<>();
+    }
+
+    @Override
+    public Long number() throws IOException {
+        return this.origin.number();
+    }
+
+    @Override
+    public String name() throws IOException {
+        return this.origin.name();
+    }
+
+    @Override
+    public Date updated() throws IOException {
+        return this.origin.updated();
+    }
+
+    @Override
+    public XML read() throws IOException {
+        final XML xml = this.origin.read();
+        this.seen.set(xml);
+        return xml;
+    }
+
+    @Override
+    public Map<String, String> project(final String... paths)
+        throws IOException {
+        return this.origin.project(paths);
+    }
+
+    @Override
+    public XML full() throws IOException {
+        return this.origin.full();
+    }
+
+    @Override
+    public void modify(final Iterable<Directive> dirs) throws IOException {
+        final Directives applied = new Directives(dirs);
+        if (applied.iterator().hasNext()) {
+            final XML xml = this.seen.get();
+            final Map<String, String> before;
+            if (xml == null) {
+                before = this.origin.project(ChTalk.KEYS);
+            } else {
+                before = new Projection(ChTalk.KEYS).apply(xml.node());
+            }
+            this.origin.modify(applied);
+            final Map<String, String> after;
+            if (xml == null) {
+                after = this.origin.project(ChTalk.KEYS);
+            } else {
+                final Node node = ChTalk.apply(xml, applied);
+                this.seen.set(new XMLDocument(node));
+                after = new Projection(ChTalk.KEYS).apply(node);
+            }
+            this.sink.push(
+                new Change(
+                    "modify", this.origin.number(), this.origin.name(),
+                    applied.toString(), before, after
+                )
+            );
+        } else {
+            this.origin.modify(applied);
+        }
+    }
+
+    @Override
+    public void active(final boolean yes) throws IOException {
+        final XML xml = this.seen.get();
+        final Map<String, String> keys;
+        if (xml == null) {
+            keys = this.origin.project(ChTalk.KEYS);
+        } else {
+            keys = new Projection(ChTalk.KEYS).apply(xml.node());
+        }
+        this.origin.active(yes);
+        final String kind;
+        if (yes) {
+            kind = "activate";
+        } else {
+            kind = "deactivate";
+        }
+        this.sink.push(
+            new Change(
+                kind, this.origin.number(), this.origin.name(), "",
+                keys, keys
+            )
+        );
+    }
+
+    /**
+     * Apply directives to a copy of the document.
+     * @param xml The document
+     * @param dirs Directives, which the talk applied already
+     * @return Modified copy of the document
+     */
+    private static Node apply(final XML xml, final Iterable<Directive> dirs) {
+        final Node node = xml.node();
+        try {
+            new Xembler(dirs).apply(node);
+        } catch (final ImpossibleModificationException ex) {
+            throw new IllegalStateException(
+                String.format("failed to apply %s to %s", dirs, xml),
+                ex
+            );
+        }
+        return node;
+    }
+
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.changes;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Change of a talk.
+ *
+ * <p>Key fields of the talk are the values of {@link ChTalk#KEYS},
+ * before and after the change; absent ones are not reported.</p>
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString
+@EqualsAndHashCode
+public final class Change {
+
+    /**
+     * Kind of change, like "modify" or "delete".
+     */
+    private final transient String kind;
+
+    /**
+     * Number of the talk.
+     */
+    private final transient long number;
+
+    /**
+     * Name of the talk.
+     */
+    private final transient String name;
+
+    /**
+     * Directives applied, as a text.
+     */
+    private final transient String dirs;
+
+    /**
+     * Key fields before the change.
+     */
+    private final transient Map<String, String> before;
+
+    /**
+     * Key fields after the change.
+     */
+    private final transient Map<String, String> after;
+
+    /**
+     * When it happened, in milliseconds.
+     */
+    private final transient long time;
+
+    /**
+     * Ctor.
+     * @param knd Kind of change
+     * @param num Number of the talk
+     * @param label Name of the talk
+     * @param script Directives applied
+     * @param old Key fields before
+     * @param fresh Key fields after
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Change(final String knd, final long num, final String label,
+        final String script, final Map<String, String> old,
+        final Map<String, String> fresh) {
+        this.kind = knd;
+        this.number = num;
+        this.name = label;
+        this.dirs = script;
+        this.before = Collections.unmodifiableMap(new HashMap<>(old));
+        this.after = Collections.unmodifiableMap(new HashMap<>(fresh));
+        this.time = System.currentTimeMillis();
+    }
+
+    /**
+     * Kind of change.
+     * @return Kind, like "create", "modify", "activate", "deactivate"
+     *  or "delete"
+     */
+    public String kind() {
+        return this.kind;
+    }
+
+    /**
+     * Number of the talk.
+     * @return Number
+     */
+    public long number() {
+        return this.number;
+    }
+
+    /**
+     * When it happened.
+     * @return Date
+     */
+    public Date date() {
+        return new Date(this.time);
+    }
+
+    /**
+     * Key fields before the change.
+     * @return Values by paths
+     */
+    public Map<String, String> before() {
+        return this.before;
+    }
+
+    /**
+     * Key fields after the change.
+     * @return Values by paths
+     */
+    public Map<String, String> after() {
+        return this.after;
+    }
+
+    /**
+     * Render it as JSON.
+     * @return JSON object
+     */
+    public JsonObject json() {
+        return Json.createObjectBuilder()
+            .add("kind", this.kind)
+            .add("number", this.number)
+            .add("name", this.name)
+            .add("time", this.time)
+            .add("dirs", this.dirs)
+            .add("before", Change.json(this.before))
+            .add("after", Change.json(this.after))
+            .build();
+    }
+
+    /**
+     * Render key fields as JSON.
+     * @param fields Values by paths
+     * @return JSON builder
+     */
+    private static JsonObjectBuilder json(final Map<String, String> fields) {
+        final JsonObjectBuilder json = Json.createObjectBuilder();
+        for (final Map.Entry<String, String> ent : fields.entrySet()) {
+            json.add(ent.getKey(), ent.getValue());
+        }
+        return json;
+    }
+
+}
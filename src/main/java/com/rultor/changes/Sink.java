@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.changes;
+
+import com.jcabi.log.Logger;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Sink of changes.
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public interface Sink {
+
+    /**
+     * Accept a change, which already happened.
+     * @param change The change
+     * @throws IOException If fails
+     */
+    void push(Change change) throws IOException;
+
+    /**
+     * Sink, which only logs failures of the origin one, since the changes
+     * happened already and they must not fail because of their report.
+     *
+     * @since 2.0
+     */
+    @ToString
+    @EqualsAndHashCode
+    final class Safe implements Sink {
+        /**
+         * Origin sink.
+         */
+        private final transient Sink origin;
+        /**
+         * Ctor.
+         * @param snk Origin sink
+         */
+        public Safe(final Sink snk) {
+            this.origin = snk;
+        }
+        @Override
+        public void push(final Change change) {
+            try {
+                this.origin.push(change);
+            } catch (final IOException ex) {
+                Logger.warn(
+                    this, "failed to report %s of talk #%d: %[exception]s",
+                    change.kind(), change.number(), ex
+                );
+            }
+        }
+    }
+
+    /**
+     * In-memory ring of the latest changes.
+     *
+     * <p>When it's full the oldest changes are dropped.</p>
+     *
+     * @since 2.0
+     */
+    @ToString(of = "size")
+    @EqualsAndHashCode(of = "size")
+    final class Ring implements Sink {
+        /**
+         * Maximum amount of changes to keep.
+         */
+        private final transient int size;
+        /**
+         * Changes, the latest are the last.
+         */
+        private final transient LinkedList<Change> changes;
+        /**
+         * Ctor.
+         * @param max Maximum amount of changes to keep
+         */
+        public Ring(final int max) {
+            this.size = max;
+            this.changes = new LinkedList<>();
+        }
+        @Override
+        public void push(final Change change) {
+            synchronized (this.changes) {
+                this.changes.addLast(change);
+                if (this.changes.size() > this.size) {
+                    this.changes.removeFirst();
+                }
+            }
+        }
+        /**
+         * Changes in the ring, the oldest first.
+         * @return Changes
+         */
+        public List<Change> changes() {
+            synchronized (this.changes) {
+                return new ArrayList<>(this.changes);
+            }
+        }
+    }
+
+    /**
+     * Append-only log of changes in a file, one JSON object per line.
+     *
+     * @since 2.0
+     */
+    @ToString
+    @EqualsAndHashCode
+    final class InFile implements Sink {
+        /**
+         * Path of the file.
+         */
+        private final transient String path;
+        /**
+         * Ctor.
+         * @param file The file
+         */
+        public InFile(final File file) {
+            this.path = file.getAbsolutePath();
+        }
+        @Override
+        public void push(final Change change) throws IOException {
+            final Collection<String> line = new ArrayList<>(1);
+            line.add(change.json().toString());
+            synchronized (InFile.class) {
+                Files.write(
+                    new File(this.path).toPath(), line,
+                    StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND
+                );
+            }
+        }
+    }
+
+}
@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.dynamo;
+
+import com.jcabi.aspects.Immutable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Codec of XML of talks.
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+interface Codec {
+
+    /**
+     * Unique name of the codec, which is saved together with the data.
+     * @return Name
+     */
+    String name();
+
+    /**
+     * Encode.
+     * @param xml The XML content
+     * @return Encoded content
+     * @throws IOException If fails
+     */
+    byte[] encode(String xml) throws IOException;
+
+    /**
+     * Decode.
+     * @param bytes Encoded content
+     * @return The XML content
+     * @throws IOException If fails
+     */
+    String decode(byte[] bytes) throws IOException;
+
+    /**
+     * GZIP.
+     */
+    @Immutable
+    @ToString
+    @EqualsAndHashCode
+    final class Gzip implements Codec {
+        @Override
+        public String name() {
+            return "gzip";
+        }
+        @Override
+        public byte[] encode(final String xml) throws IOException {
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (OutputStream output = new GZIPOutputStream(baos)) {
+                output.write(xml.getBytes(StandardCharsets.UTF_8));
+            }
+            return baos.toByteArray();
+        }
+        @Override
+        public String decode(final byte[] bytes) throws IOException {
+            try (InputStream input =
+                new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+                return IOUtils.toString(input, StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    /**
+     * Deflate with a preset dictionary of the strings most frequent
+     * in talks.
+     *
+     * <p>The dictionary helps only while the document is short: a talk
+     * with a few archive logs is encoded notably smaller than
+     * with GZIP, while a talk with hundreds of them, which is the one
+     * close to the size limit of an item, gains just a few percent. So this
+     * codec saves storage and traffic, but doesn't let a talk keep
+     * many more archive logs before they are moved out.</p>
+     *
+     * <p>The dictionary must never change, since all items saved with
+     * it need it to be decoded. When a better dictionary is
+     * needed, make a new codec with a new name.</p>
+     */
+    @Immutable
+    @ToString
+    @EqualsAndHashCode
+    final class Deflate implements Codec {
+        /**
+         * Dictionary.
+         */
+        private static final byte[] DICTIONARY = Deflate.dictionary();
+        /**
+         * Size of the buffer.
+         */
+        private static final int BUFFER = 8192;
+        @Override
+        public String name() {
+            return "deflate-1";
+        }
+        @Override
+        public byte[] encode(final String xml) {
+            final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try {
+                deflater.setDictionary(Deflate.DICTIONARY);
+                deflater.setInput(xml.getBytes(StandardCharsets.UTF_8));
+                deflater.finish();
+                final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                final byte[] buffer = new byte[Deflate.BUFFER];
+                while (!deflater.finished()) {
+                    baos.write(buffer, 0, deflater.deflate(buffer));
+                }
+                return baos.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        }
+        @Override
+        public String decode(final byte[] bytes) throws IOException {
+            final Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(bytes);
+                final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                final byte[] buffer = new byte[Deflate.BUFFER];
+                while (!inflater.finished()) {
+                    final int len = inflater.inflate(buffer);
+                    if (len == 0 && inflater.needsDictionary()) {
+                        inflater.setDictionary(Deflate.DICTIONARY);
+                    } else if (len == 0 && inflater.needsInput()) {
+                        throw new IOException("encoded XML is truncated");
+                    }
+                    baos.write(buffer, 0, len);
+                }
+                return new String(baos.toByteArray(), StandardCharsets.UTF_8);
+            } catch (final DataFormatException ex) {
+                throw new IOException(ex);
+            } finally {
+                inflater.end();
+            }
+        }
+        /**
+         * Load the dictionary.
+         * @return Bytes
+         */
+        private static byte[] dictionary() {
+            try (InputStream input =
+                Deflate.class.getResourceAsStream("deflate-1.txt")) {
+                return IOUtils.toByteArray(input);
+            } catch (final IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.dynamo;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import javax.json.Json;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonReader;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.codec.binary.Base64;
+
+/**
+ * Cursor of a page, which is the LastEvaluatedKey of a DynamoDB
+ * query, encoded as a URL-safe string.
+ *
+ * <p>Only string and numeric attributes are supported, which is
+ * enough for the keys of the talks table and its indexes.</p>
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString
+@EqualsAndHashCode
+final class Cursor {
+
+    /**
+     * Type of string attributes.
+     */
+    private static final String STR = "S";
+
+    /**
+     * Type of numeric attributes.
+     */
+    private static final String NUM = "N";
+
+    /**
+     * The encoded cursor, empty if there are no more pages.
+     */
+    private final transient String text;
+
+    /**
+     * Ctor.
+     * @param cursor The cursor, empty if there are no more pages
+     */
+    Cursor(final String cursor) {
+        this.text = cursor;
+    }
+
+    /**
+     * Ctor.
+     * @param key The key or NULL if there are no more pages
+     */
+    Cursor(final Map<String, AttributeValue> key) {
+        this(Cursor.encode(key));
+    }
+
+    /**
+     * Is it the first page (or there are no more pages)?
+     * @return TRUE if there is no key
+     */
+    public boolean empty() {
+        return this.text.isEmpty();
+    }
+
+    /**
+     * The cursor, as a string.
+     * @return Encoded cursor
+     */
+    public String asString() {
+        return this.text;
+    }
+
+    /**
+     * The key, to start a query after.
+     * @return The key
+     * @throws IllegalArgumentException If the cursor is broken
+     */
+    public Map<String, AttributeValue> key() {
+        try {
+            return Cursor.decode(this.text);
+        } catch (final JsonException | ClassCastException ex) {
+            throw new IllegalArgumentException(
+                String.format("broken cursor \"%s\"", this.text), ex
+            );
+        }
+    }
+
+    /**
+     * Decode the key.
+     * @param cursor The cursor
+     * @return The key
+     */
+    private static Map<String, AttributeValue> decode(final String cursor) {
+        final JsonObject json;
+        try (JsonReader reader = Json.createReader(
+            new StringReader(
+                new String(
+                    Base64.decodeBase64(cursor), StandardCharsets.UTF_8
+                )
+            )
+        )) {
+            json = reader.readObject();
+        }
+        final Map<String, AttributeValue> key = new HashMap<>(json.size());
+        for (final String attr : json.keySet()) {
+            final JsonObject value = json.getJsonObject(attr);
+            if (value.containsKey(Cursor.NUM)) {
+                key.put(
+                    attr,
+                    new AttributeValue().withN(value.getString(Cursor.NUM))
+                );
+            } else if (value.containsKey(Cursor.STR)) {
+                key.put(attr, new AttributeValue(value.getString(Cursor.STR)));
+            } else {
+                throw new JsonException(
+                    String.format("no value of \"%s\"", attr)
+                );
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Encode the key.
+     * @param key The key or NULL if there are no more pages
+     * @return Cursor, empty if there are no more pages
+     */
+    private static String encode(final Map<String, AttributeValue> key) {
+        final String cursor;
+        if (key == null || key.isEmpty()) {
+            cursor = "";
+        } else {
+            final JsonObjectBuilder json = Json.createObjectBuilder();
+            for (final Map.Entry<String, AttributeValue> ent : key.entrySet()) {
+                if (ent.getValue().getN() == null) {
+                    json.add(
+                        ent.getKey(),
+                        Json.createObjectBuilder()
+                            .add(Cursor.STR, ent.getValue().getS())
+                    );
+                } else {
+                    json.add(
+                        ent.getKey(),
+                        Json.createObjectBuilder()
+                            .add(Cursor.NUM, ent.getValue().getN())
+                    );
+                }
+            }
+            cursor = Base64.encodeBase64URLSafeString(
+                json.build().toString().getBytes(StandardCharsets.UTF_8)
+            );
+        }
+        return cursor;
+    }
+
+}
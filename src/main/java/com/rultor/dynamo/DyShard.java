@@ -0,0 +1,284 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.dynamo;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.google.common.hash.Hashing;
+import com.jcabi.dynamo.Attributes;
+import com.jcabi.dynamo.Item;
+import com.jcabi.dynamo.Region;
+import com.jcabi.dynamo.ScanValve;
+import com.jcabi.dynamo.Table;
+import com.jcabi.log.Logger;
+import com.rultor.spi.Shard;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Shard of talks, with nodes and their leases registered in Dynamo.
+ *
+ * <p>Every node puts its heartbeat into the table on every tick. Nodes
+ * which didn't beat for longer than the allowed time are considered
+ * gone and their records are removed. Each talk is preferred by
+ * the node with the highest hash of the node name and the talk name
+ * together (rendezvous hashing), so when a node joins or leaves, only
+ * its own share of talks moves to or from the others.</p>
+ *
+ * <p>Nodes may see different lists of alive nodes for a while, that's
+ * why preference is not enough: the node processes the talk only if it
+ * holds the lease of the talk, which is a record in the table of leases
+ * with the name of the owner and the time it expires. The lease is
+ * taken or prolonged by a conditional put, which fails if another
+ * node holds it and it's not expired yet. The leader is the node
+ * which holds the lease of the leader. When the node stops working,
+ * its leases expire and are taken by others.</p>
+ *
+ * <p>Until the first successful beat the node owns nothing and
+ * is not the leader.</p>
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString(of = "node")
+@EqualsAndHashCode(of = { "region", "node" })
+public final class DyShard implements Shard {
+
+    /**
+     * Table name.
+     */
+    public static final String TBL = "nodes";
+
+    /**
+     * Node unique name.
+     */
+    public static final String HASH = "node";
+
+    /**
+     * When it was alive last time.
+     */
+    public static final String ATTR_BEAT = "beat";
+
+    /**
+     * Table of leases.
+     */
+    public static final String TBL_LEASES = "leases";
+
+    /**
+     * Name of the talk or {@link #LEADER}, in the table of leases.
+     */
+    public static final String LEASE_HASH = "lease";
+
+    /**
+     * Name of the node, which holds the lease.
+     */
+    public static final String ATTR_OWNER = "owner";
+
+    /**
+     * When the lease expires, in milliseconds.
+     */
+    public static final String ATTR_EXPIRES = "expires";
+
+    /**
+     * Lease of the leader, which can't be a name of a talk.
+     */
+    public static final String LEADER = "@leader";
+
+    /**
+     * Region we're in.
+     */
+    private final transient Region region;
+
+    /**
+     * Name of this node.
+     */
+    private final transient String node;
+
+    /**
+     * How long a node may stay silent before it's considered gone,
+     * and how long its leases last, in milliseconds.
+     */
+    private final transient long ttl;
+
+    /**
+     * Names of alive nodes, sorted, empty until the first beat.
+     */
+    private final transient AtomicReference<List<String>> nodes;
+
+    /**
+     * Public ctor.
+     * @param reg Region
+     * @param name Name of this node
+     * @param msec How long a node may be silent and how long its
+     *  leases last, in milliseconds
+     */
+    public DyShard(final Region reg, final String name, final long msec) {
+        this.region = reg;
+        this.node = name;
+        this.ttl = msec;
+        this.nodes = new AtomicReference<>(Collections.emptyList());
+    }
+
+    @Override
+    public void beat() throws IOException {
+        final long now = System.currentTimeMillis();
+        final Table table = this.region.table(DyShard.TBL);
+        table.put(
+            new Attributes()
+                .with(DyShard.HASH, this.node)
+                .with(DyShard.ATTR_BEAT, now)
+        );
+        final Collection<String> alive = new TreeSet<>();
+        alive.add(this.node);
+        final Iterator<Item> items = table.frame()
+            .through(
+                new ScanValve()
+                    .withAttributeToGet(DyShard.HASH)
+                    .withAttributeToGet(DyShard.ATTR_BEAT)
+            )
+            .iterator();
+        while (items.hasNext()) {
+            final Item item = items.next();
+            final String name = item.get(DyShard.HASH).getS();
+            if (Long.parseLong(item.get(DyShard.ATTR_BEAT).getN())
+                > now - this.ttl) {
+                alive.add(name);
+            } else if (!this.node.equals(name)) {
+                items.remove();
+                Logger.info(this, "node %s is gone", name);
+            }
+        }
+        final List<String> before = this.nodes.getAndSet(
+            new ArrayList<>(alive)
+        );
+        if (!before.equals(this.nodes.get())) {
+            Logger.info(
+                this, "%d nodes share the talks now: %[list]s",
+                alive.size(), alive
+            );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>If the talk is preferred by this node, its lease is taken
+     * or prolonged.</p>
+     */
+    @Override
+    public boolean mine(final String talk) {
+        String owner = "";
+        long best = Long.MIN_VALUE;
+        for (final String name : this.nodes.get()) {
+            final long score = Hashing.murmur3_128().newHasher()
+                .putString(name, StandardCharsets.UTF_8)
+                .putString(talk, StandardCharsets.UTF_8)
+                .hash().asLong();
+            if (score > best) {
+                best = score;
+                owner = name;
+            }
+        }
+        return this.node.equals(owner) && this.lease(talk);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The lease of the leader is taken or prolonged.</p>
+     */
+    @Override
+    public boolean leader() {
+        return !this.nodes.get().isEmpty() && this.lease(DyShard.LEADER);
+    }
+
+    /**
+     * Take or prolong the lease, unless another node holds it.
+     * @param name Name of the lease
+     * @return TRUE if this node holds it now
+     */
+    private boolean lease(final String name) {
+        final long now = System.currentTimeMillis();
+        final Map<String, String> names = new HashMap<>(3);
+        names.put("#lease", DyShard.LEASE_HASH);
+        names.put("#owner", DyShard.ATTR_OWNER);
+        names.put("#expires", DyShard.ATTR_EXPIRES);
+        final Map<String, AttributeValue> values = new HashMap<>(2);
+        values.put(":me", new AttributeValue(this.node));
+        values.put(":now", new AttributeValue().withN(Long.toString(now)));
+        final AmazonDynamoDB aws = this.region.aws();
+        boolean held;
+        try {
+            aws.putItem(
+                new PutItemRequest()
+                    .withTableName(
+                        this.region.table(DyShard.TBL_LEASES).name()
+                    )
+                    .withItem(
+                        new Attributes()
+                            .with(DyShard.LEASE_HASH, name)
+                            .with(DyShard.ATTR_OWNER, this.node)
+                            .with(DyShard.ATTR_EXPIRES, now + this.ttl)
+                    )
+                    .withConditionExpression(
+                        String.join(
+                            " OR ",
+                            "attribute_not_exists(#lease)",
+                            "#owner = :me",
+                            "#expires < :now"
+                        )
+                    )
+                    .withExpressionAttributeNames(names)
+                    .withExpressionAttributeValues(values)
+            );
+            held = true;
+        } catch (final ConditionalCheckFailedException ex) {
+            held = false;
+        } finally {
+            aws.shutdown();
+        }
+        return held;
+    }
+
+}
@@ -29,44 +29,104 @@
  */
 package com.rultor.dynamo;
 
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.model.AttributeAction;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
-import com.jcabi.aspects.Immutable;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.Select;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.jcabi.aspects.Tv;
 import com.jcabi.dynamo.AttributeUpdates;
+import com.jcabi.dynamo.Attributes;
 import com.jcabi.dynamo.Item;
+import com.jcabi.dynamo.QueryValve;
+import com.jcabi.dynamo.Region;
+import com.jcabi.dynamo.Table;
+import com.jcabi.immutable.ArrayMap;
 import com.jcabi.xml.StrictXML;
 import com.jcabi.xml.XML;
 import com.jcabi.xml.XMLDocument;
 import com.jcabi.xml.XSLDocument;
+import com.rultor.spi.Projection;
 import com.rultor.spi.Talk;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.nio.ByteBuffer;
-import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.Date;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
-import org.apache.commons.io.IOUtils;
 import org.cactoos.list.SolidList;
+import org.w3c.dom.Document;
 import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
 import org.xembly.Directive;
+import org.xembly.Directives;
 import org.xembly.ImpossibleModificationException;
 import org.xembly.Xembler;
 
 /**
  * Talk in Dynamo.
  *
+ * <p>Every modification of the XML increments the version of the item
+ * and is conditional: it fails with
+ * {@link ConcurrentModificationException} if somebody else modified
+ * the talk since the current thread read it, or since it was loaded,
+ * if the thread didn't read it. The directives are not applied again
+ * to the new document, since they were made for the old one, the
+ * caller has to read the talk again and make them again. Switching
+ * between active and passive increments the version too, but it doesn't
+ * depend on the document, that's why it's simply tried again.</p>
+ *
+ * <p>Items are stamped with the revision of the schema of their XML,
+ * which doesn't need any upgrade if the revision is the latest one.
+ * Validated documents are kept in memory, until the items are updated.
+ * Attributes the talk was created with are forgotten, when the talk
+ * modifies the item, except the name and the number.
+ * Every update moves the "updated" attribute forward, at least by one
+ * millisecond, so a document and its date always match.</p>
+ *
+ * <p>Only the most recent logs of the archive are kept in the item,
+ * the older ones are moved to a separate table and are read only
+ * by {@link #full()}. They are moved before the item is updated,
+ * that's why a failed update may leave a few rows in the table,
+ * which are not counted by the item. They are not read and the next
+ * update moving logs overwrites them.</p>
+ *
+ * <p>Small modifications are not saved into the XML, but are appended
+ * to the {@link Journal} of the item, as Xembly scripts. When the
+ * journal gets too big, or when logs have to be moved to the archive,
+ * or when the item with the new entry would exceed the {@link #LIMIT},
+ * the journal is compacted: the XML is saved entirely, with all
+ * modifications applied, and the journal is removed.</p>
+ *
+ * <p>XML is saved encoded by a {@link Codec}, which name is saved
+ * together with it. Items without the name of the codec are
+ * in GZIP.</p>
+ *
  * @author Yegor Bugayenko (yegor256@gmail.com)
  * @version $Id$
  * @since 1.0
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
  */
-@Immutable
 @ToString
 @EqualsAndHashCode(of = "item")
 public final class DyTalk implements Talk {
@@ -80,139 +140,889 @@ public final class DyTalk implements Talk {
     private static final int LIMIT = 399 << 10;
 
     /**
-     * UTF-8.
+     * Codec of items saved before codecs were introduced.
+     */
+    private static final Codec GZIP = new Codec.Gzip();
+
+    /**
+     * Codec to save items with.
      */
-    private static final String UTF_8 = "UTF-8";
+    private static final Codec CODEC = new Codec.Deflate();
+
+    /**
+     * How many most recent logs of the archive stay in the document,
+     * the rest go to the archive table.
+     */
+    private static final int HOT = Tv.TEN;
+
+    /**
+     * Name of the element of a log in the archive.
+     */
+    private static final String LOG = "log";
+
+    /**
+     * Paths, which values are saved in the item, see {@link #project}.
+     */
+    private static final Collection<String> PROJECTED = new SolidList<>(
+        "/talk/@later",
+        "/talk/@public",
+        "/talk/wire/href",
+        "/talk/wire/github-repo",
+        "/talk/wire/github-issue",
+        "/talk/request/@id",
+        "/talk/request/@index",
+        "/talk/daemon/@id",
+        "/talk/shell/@id"
+    );
+
+    /**
+     * Validated documents, by names and dates of update.
+     */
+    private static final Cache<String, XML> DOCS = CacheBuilder.newBuilder()
+        .maximumWeight((long) Tv.TEN << Tv.TWENTY)
+        .<String, XML>weigher((key, xml) -> xml.toString().length())
+        .build();
 
     /**
      * Item.
      */
     private final transient Item item;
 
+    /**
+     * All attributes of the item, if they are loaded already.
+     */
+    private final transient AtomicReference<Map<String, AttributeValue>>
+        loaded;
+
+    /**
+     * Date of update of the document, which the current thread read or
+     * wrote last, or NULL if it doesn't know it.
+     */
+    private final transient ThreadLocal<AttributeValue> seen;
+
     /**
      * Ctor.
      * @param itm Item
      */
     DyTalk(final Item itm) {
+        this(itm, Collections.emptyMap());
+    }
+
+    /**
+     * Ctor.
+     * @param itm Item
+     * @param attrs All its attributes, loaded already
+     */
+    DyTalk(final Item itm, final Map<String, AttributeValue> attrs) {
         this.item = itm;
+        this.loaded = new AtomicReference<>(new ArrayMap<>(attrs));
+        final AttributeValue updated = attrs.get(DyTalks.ATTR_UPDATED);
+        this.seen = ThreadLocal.withInitial(() -> updated);
     }
 
     @Override
     public Long number() throws IOException {
-        return Long.parseLong(this.item.get(DyTalks.ATTR_NUMBER).getN());
+        return Long.parseLong(this.attr(DyTalks.ATTR_NUMBER).getN());
     }
 
     @Override
     public String name() throws IOException {
-        return this.item.get(DyTalks.HASH).getS();
+        return this.attr(DyTalks.HASH).getS();
     }
 
     @Override
     public Date updated() throws IOException {
         return new Date(
-            Long.parseLong(this.item.get(DyTalks.ATTR_UPDATED).getN())
+            Long.parseLong(this.attr(DyTalks.ATTR_UPDATED).getN())
         );
     }
 
     @Override
     public XML read() throws IOException {
-        final String xml;
-        if (this.item.has(DyTalks.ATTR_XML_ZIP)) {
-            xml = DyTalk.unzip(
-                this.item.get(DyTalks.ATTR_XML_ZIP).getB().array()
-            );
+        final AttributeValue updated = this.attr(DyTalks.ATTR_UPDATED);
+        final XML xml = DyTalk.cached(
+            this.name(), updated, () -> DyTalk.xml(this.attributes())
+        );
+        this.seen.set(updated);
+        return xml;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Values of {@link #PROJECTED} paths are saved in the item,
+     * when it's modified, and are taken from there, without decoding
+     * the XML. Absent values are saved as NULL, that's why a path
+     * missing in the item means that it was saved before the path
+     * was projected, and it is found in the XML, as other paths.</p>
+     */
+    @Override
+    public Map<String, String> project(final String... paths)
+        throws IOException {
+        final AttributeValue meta = this.attributes().get(DyTalks.ATTR_META);
+        final Map<String, String> values;
+        if (meta != null
+            && meta.getM().keySet().containsAll(Arrays.asList(paths))) {
+            values = new HashMap<>(paths.length);
+            for (final String path : paths) {
+                final AttributeValue value = meta.getM().get(path);
+                if (value.getS() != null) {
+                    values.put(path, value.getS());
+                }
+            }
         } else {
-            xml = this.item.get(DyTalks.ATTR_XML).getS();
+            values = new Projection(paths).apply(this.read().node());
         }
-        return new StrictXML(
-            Talk.UPGRADE.transform(new XMLDocument(xml)),
-            Talk.SCHEMA
-        );
+        return values;
     }
 
     @Override
-    public void modify(final Iterable<Directive> dirs) throws IOException {
-        if (!new SolidList<>(dirs).isEmpty()) {
-            final XML xml = this.read();
-            final Node node = xml.node();
-            try {
-                new Xembler(dirs).apply(node);
-            } catch (final ImpossibleModificationException ex) {
-                throw new IllegalStateException(
-                    String.format(
-                        "failed to apply %s to %s",
-                        dirs.toString(), xml
+    public XML full() throws IOException {
+        final XML hot = this.read();
+        final AttributeValue count = this.attributes()
+            .get(DyTalks.ATTR_ARCHIVED);
+        long archived = 0L;
+        if (count != null) {
+            archived = Long.parseLong(count.getN());
+        }
+        final Iterator<Item> cold = this.item.frame().table().region()
+            .table(DyTalks.TBL_ARCHIVE)
+            .frame()
+            .through(
+                new QueryValve()
+                    .withScanIndexForward(true)
+                    .withSelect(Select.ALL_ATTRIBUTES)
+            )
+            .where(DyTalks.ARCHIVE_HASH, this.name())
+            .where(
+                DyTalks.ARCHIVE_RANGE,
+                new Condition()
+                    .withComparisonOperator(ComparisonOperator.LT)
+                    .withAttributeValueList(
+                        new AttributeValue().withN(Long.toString(archived))
+                    )
+            )
+            .iterator();
+        XML xml = hot;
+        if (archived > 0L && cold.hasNext()) {
+            final Document doc = Document.class.cast(hot.node());
+            final Node archive = doc.getElementsByTagName("archive").item(0);
+            final Node first = archive.getFirstChild();
+            while (cold.hasNext()) {
+                archive.insertBefore(
+                    doc.importNode(
+                        Document.class.cast(
+                            new XMLDocument(
+                                cold.next().get(DyTalks.ATTR_LOG).getS()
+                            ).node()
+                        ).getDocumentElement(),
+                        true
                     ),
-                    ex
+                    first
                 );
             }
-            final byte[] body = DyTalk.zip(
-                XSLDocument.STRIP.transform(
-                    new StrictXML(new XMLDocument(node), Talk.SCHEMA)
-                ).toString()
+            xml = new XMLDocument(doc);
+        }
+        return xml;
+    }
+
+    @Override
+    public void modify(final Iterable<Directive> dirs) throws IOException {
+        final Collection<Directive> list = new SolidList<>(dirs);
+        if (!list.isEmpty() && !this.attempt(list)) {
+            throw new ConcurrentModificationException(
+                String.format(
+                    "talk \"%s\" was modified since it was read",
+                    this.name()
+                )
             );
-            if (body.length > DyTalk.LIMIT) {
-                throw new IllegalArgumentException(
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The item is updated only if nobody modified it since its
+     * attributes were fetched, otherwise they are fetched again. The talk
+     * goes to the sparse index of recent talks according to its "public"
+     * attribute, which is saved with the same version as the XML.</p>
+     */
+    @Override
+    public void active(final boolean yes) throws IOException {
+        int attempt = 1;
+        while (!this.switched(yes)) {
+            if (attempt >= Tv.FIVE) {
+                throw new ConcurrentModificationException(
                     String.format(
-                        // @checkstyle LineLength (1 line)
-                        "XML is too big (%d bytes, maximum is %d), even after ZIP, in \"%s\"",
-                        body.length, DyTalk.LIMIT,
-                        this.item.get(DyTalks.HASH).getS()
+                        "talk \"%s\" was modified %d times in a row",
+                        this.name(), attempt
                     )
                 );
             }
-            final AttributeValue value = new AttributeValue();
-            value.setB(ByteBuffer.wrap(body));
-            this.item.put(
-                new AttributeUpdates()
-                    .with(DyTalks.ATTR_UPDATED, System.currentTimeMillis())
-                    .with(
-                        DyTalks.ATTR_XML_ZIP,
-                        new AttributeValueUpdate(value, AttributeAction.PUT)
+            ++attempt;
+        }
+    }
+
+    /**
+     * Try to make the talk active or passive, if nobody modifies it
+     * meanwhile.
+     * @param yes TRUE if it has to be active
+     * @return TRUE if done, FALSE if it was modified by someone else
+     * @throws IOException If fails
+     */
+    private boolean switched(final boolean yes) throws IOException {
+        final Table table = this.item.frame().table();
+        final Map<String, AttributeValue> key = Collections.singletonMap(
+            DyTalks.HASH, new AttributeValue(this.name())
+        );
+        final AmazonDynamoDB aws = table.region().aws();
+        try {
+            final Map<String, AttributeValue> attrs =
+                DyTalk.fetch(aws, table.name(), key);
+            final long updated = DyTalk.next(attrs);
+            final boolean open = DyTalk.open(attrs);
+            aws.updateItem(
+                new UpdateItemRequest()
+                    .withTableName(table.name())
+                    .withKey(key)
+                    .withExpected(
+                        Collections.singletonMap(
+                            DyTalks.ATTR_VERSION, DyTalk.expected(attrs)
+                        )
+                    )
+                    .withAttributeUpdates(
+                        new AttributeUpdates()
+                            .with(DyTalks.ATTR_ACTIVE, yes)
+                            .with(DyTalks.ATTR_UPDATED, updated)
+                            .with(
+                                DyTalks.ATTR_VERSION,
+                                DyTalk.version(attrs) + 1L
+                            )
+                            .with(DyTalks.ATTR_PUBLIC, open)
+                            .with(DyTalks.ATTR_RECENT, DyTalk.recent(yes, open))
                     )
             );
+            this.forget();
+            final AttributeValue before = this.seen.get();
+            if (before != null
+                && before.equals(attrs.get(DyTalks.ATTR_UPDATED))) {
+                this.seen.set(DyTalk.numeric(updated));
+            }
+            return true;
+        } catch (final ConditionalCheckFailedException ex) {
+            return false;
+        } finally {
+            aws.shutdown();
         }
     }
 
-    @Override
-    public void active(final boolean yes) throws IOException {
-        this.item.put(
-            new AttributeUpdates()
-                .with(DyTalks.ATTR_ACTIVE, yes)
-                .with(DyTalks.ATTR_UPDATED, System.currentTimeMillis())
+    /**
+     * Try to modify the talk, if nobody modified it since we read it.
+     * @param dirs Directives to apply
+     * @return TRUE if modified, FALSE if it was modified by someone else
+     * @throws IOException If fails
+     * @checkstyle ExecutableStatementCountCheck (150 lines)
+     */
+    private boolean attempt(final Iterable<Directive> dirs)
+        throws IOException {
+        final Table table = this.item.frame().table();
+        final Map<String, AttributeValue> key = Collections.singletonMap(
+            DyTalks.HASH, new AttributeValue(this.name())
         );
+        final AmazonDynamoDB aws = table.region().aws();
+        try {
+            final Map<String, AttributeValue> attrs =
+                DyTalk.fetch(aws, table.name(), key);
+            final AttributeValue before = this.seen.get();
+            if (before != null
+                && !before.equals(attrs.get(DyTalks.ATTR_UPDATED))) {
+                return false;
+            }
+            final long updated = DyTalk.next(attrs);
+            final Node node = DyTalk.apply(
+                DyTalk.cached(
+                    this.name(), attrs.get(DyTalks.ATTR_UPDATED),
+                    () -> DyTalk.xml(attrs)
+                ),
+                dirs
+            );
+            final String script = new Directives(dirs).toString();
+            final boolean open = Boolean.parseBoolean(
+                Document.class.cast(node).getDocumentElement()
+                    .getAttribute(DyTalks.ATTR_PUBLIC)
+            );
+            final AttributeValue meta = DyTalk.meta(node);
+            final Map<String, AttributeValue> after = new HashMap<>(attrs);
+            after.put(DyTalks.ATTR_META, meta);
+            if (new Journal(attrs).fits(script)
+                && Document.class.cast(node).getElementsByTagName(DyTalk.LOG)
+                .getLength() <= DyTalk.HOT
+                && DyTalk.size(after) + DyTalk.size(new AttributeValue(script))
+                <= DyTalk.LIMIT) {
+                aws.updateItem(
+                    DyTalk.append(attrs, updated, script, open, meta)
+                        .withTableName(table.name())
+                        .withKey(key)
+                );
+                this.forget();
+                this.seen.set(DyTalk.numeric(updated));
+                return true;
+            }
+            long archived = 0L;
+            if (attrs.containsKey(DyTalks.ATTR_ARCHIVED)) {
+                archived = Long.parseLong(
+                    attrs.get(DyTalks.ATTR_ARCHIVED).getN()
+                );
+            }
+            archived += this.archive(table.region(), node, archived);
+            final AttributeValue value = new AttributeValue();
+            value.setB(ByteBuffer.wrap(this.encode(node)));
+            aws.updateItem(
+                new UpdateItemRequest()
+                    .withTableName(table.name())
+                    .withKey(key)
+                    .withExpected(
+                        Collections.singletonMap(
+                            DyTalks.ATTR_VERSION, DyTalk.expected(attrs)
+                        )
+                    )
+                    .withAttributeUpdates(
+                        new AttributeUpdates()
+                            .with(DyTalks.ATTR_UPDATED, updated)
+                            .with(
+                                DyTalks.ATTR_VERSION,
+                                DyTalk.version(attrs) + 1L
+                            )
+                            .with(DyTalks.ATTR_SCHEMA, Talk.REVISION)
+                            .with(DyTalks.ATTR_CODEC, DyTalk.CODEC.name())
+                            .with(DyTalks.ATTR_ARCHIVED, archived)
+                            .with(DyTalks.ATTR_PUBLIC, open)
+                            .with(
+                                DyTalks.ATTR_META,
+                                new AttributeValueUpdate(
+                                    meta, AttributeAction.PUT
+                                )
+                            )
+                            .with(
+                                DyTalks.ATTR_RECENT,
+                                DyTalk.recent(DyTalk.active(attrs), open)
+                            )
+                            .with(
+                                DyTalks.ATTR_JOURNAL,
+                                new AttributeValueUpdate().withAction(
+                                    AttributeAction.DELETE
+                                )
+                            )
+                            .with(
+                                DyTalks.ATTR_XML_ZIP,
+                                new AttributeValueUpdate(
+                                    value, AttributeAction.PUT
+                                )
+                            )
+                    )
+            );
+            this.forget();
+            this.seen.set(DyTalk.numeric(updated));
+            return true;
+        } catch (final ConditionalCheckFailedException ex) {
+            return false;
+        } finally {
+            aws.shutdown();
+        }
     }
 
     /**
-     * Zip the XML.
-     * @param xml The XML content
-     * @return Zipped content
+     * Attribute of the item.
+     * @param name Name of the attribute
+     * @return Its value
+     * @throws IOException If fails
+     */
+    private AttributeValue attr(final String name) throws IOException {
+        final Map<String, AttributeValue> attrs = this.loaded.get();
+        final AttributeValue value;
+        if (attrs.containsKey(name)) {
+            value = attrs.get(name);
+        } else {
+            value = this.item.get(name);
+        }
+        return value;
+    }
+
+    /**
+     * All attributes of the item, loaded already or fetched now.
+     * @return Attributes
+     * @throws IOException If fails
+     */
+    private Map<String, AttributeValue> attributes() throws IOException {
+        Map<String, AttributeValue> attrs = this.loaded.get();
+        if (!attrs.containsKey(DyTalks.ATTR_UPDATED)) {
+            final Table table = this.item.frame().table();
+            final AmazonDynamoDB aws = table.region().aws();
+            try {
+                attrs = DyTalk.fetch(
+                    aws, table.name(),
+                    Collections.singletonMap(
+                        DyTalks.HASH, new AttributeValue(this.name())
+                    )
+                );
+            } finally {
+                aws.shutdown();
+            }
+        }
+        return attrs;
+    }
+
+    /**
+     * Forget all loaded attributes, which may change, since the item
+     * is modified now.
+     */
+    private void forget() {
+        final Map<String, AttributeValue> attrs = new HashMap<>(2);
+        for (final Map.Entry<String, AttributeValue> ent
+            : this.loaded.get().entrySet()) {
+            if (DyTalks.HASH.equals(ent.getKey())
+                || DyTalks.ATTR_NUMBER.equals(ent.getKey())) {
+                attrs.put(ent.getKey(), ent.getValue());
+            }
+        }
+        this.loaded.set(new ArrayMap<>(attrs));
+    }
+
+    /**
+     * Move the oldest logs of the archive to the archive table, leaving
+     * only the most recent ones in the document.
+     * @param region Region
+     * @param node The document
+     * @param start Position of the first log to move
+     * @return How many logs were moved
+     * @throws IOException If fails
+     */
+    private int archive(final Region region, final Node node,
+        final long start) throws IOException {
+        final NodeList logs = Document.class.cast(node)
+            .getElementsByTagName(DyTalk.LOG);
+        final int extra = Math.max(logs.getLength() - DyTalk.HOT, 0);
+        final Table table = region.table(DyTalks.TBL_ARCHIVE);
+        final Collection<Node> moved = new ArrayList<>(extra);
+        for (int idx = 0; idx < extra; ++idx) {
+            final Node log = logs.item(idx);
+            table.put(
+                new Attributes()
+                    .with(DyTalks.ARCHIVE_HASH, this.name())
+                    .with(DyTalks.ARCHIVE_RANGE, start + idx)
+                    .with(DyTalks.ATTR_LOG, new XMLDocument(log).toString())
+            );
+            moved.add(log);
+        }
+        for (final Node log : moved) {
+            log.getParentNode().removeChild(log);
+        }
+        return extra;
+    }
+
+    /**
+     * Encode the document.
+     * @param node The document
+     * @return Encoded XML, ready to be saved
      * @throws IOException If fails
      */
-    private static byte[] zip(final String xml) throws IOException {
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        final OutputStream output = new GZIPOutputStream(baos);
-        IOUtils.copy(
-            IOUtils.toInputStream(xml, Charset.forName(UTF_8)),
-            output
+    private byte[] encode(final Node node) throws IOException {
+        final byte[] body = DyTalk.CODEC.encode(
+            XSLDocument.STRIP.transform(new XMLDocument(node)).toString()
         );
-        output.close();
-        return baos.toByteArray();
+        if (body.length > DyTalk.LIMIT) {
+            throw new IllegalArgumentException(
+                String.format(
+                    // @checkstyle LineLength (1 line)
+                    "XML is too big (%d bytes, maximum is %d), even after %s, in \"%s\"",
+                    body.length, DyTalk.LIMIT, DyTalk.CODEC.name(),
+                    this.name()
+                )
+            );
+        }
+        return body;
+    }
+
+    /**
+     * Request to append a script to the journal of the item, if
+     * nobody modified it since we read it.
+     * @param attrs Attributes of the item, as we read them
+     * @param updated Date of this update, in milliseconds
+     * @param script Xembly script
+     * @param open Is it public, after the script
+     * @param meta Values of projected paths, after the script
+     * @return Request, without the table and the key
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static UpdateItemRequest append(
+        final Map<String, AttributeValue> attrs, final long updated,
+        final String script, final boolean open, final AttributeValue meta) {
+        final Map<String, String> names = new HashMap<>(0);
+        names.put("#journal", DyTalks.ATTR_JOURNAL);
+        names.put("#updated", DyTalks.ATTR_UPDATED);
+        names.put("#version", DyTalks.ATTR_VERSION);
+        names.put("#public", DyTalks.ATTR_PUBLIC);
+        names.put("#recent", DyTalks.ATTR_RECENT);
+        names.put("#meta", DyTalks.ATTR_META);
+        final Map<String, AttributeValue> values = new HashMap<>(0);
+        values.put(":public", new AttributeValue(Boolean.toString(open)));
+        values.put(":meta", meta);
+        values.put(
+            ":entry", new AttributeValue().withL(new AttributeValue(script))
+        );
+        values.put(
+            ":empty", new AttributeValue().withL(Collections.emptyList())
+        );
+        values.put(
+            ":updated",
+            DyTalk.numeric(updated)
+        );
+        final String condition;
+        if (attrs.containsKey(DyTalks.ATTR_VERSION)) {
+            values.put(":expected", attrs.get(DyTalks.ATTR_VERSION));
+            condition = "#version = :expected";
+        } else {
+            condition = "attribute_not_exists(#version)";
+        }
+        values.put(":version", DyTalk.numeric(DyTalk.version(attrs) + 1L));
+        final String recent;
+        if (DyTalk.active(attrs) || !open) {
+            recent = " REMOVE #recent";
+        } else {
+            values.put(":recent", new AttributeValue(Boolean.toString(true)));
+            recent = ", #recent = :recent";
+        }
+        return new UpdateItemRequest()
+            .withUpdateExpression(
+                String.join(
+                    ", ",
+                    String.join(
+                        "",
+                        "SET #journal = list_append(",
+                        "if_not_exists(#journal, :empty), :entry)"
+                    ),
+                    "#updated = :updated",
+                    "#version = :version",
+                    "#public = :public",
+                    "#meta = :meta"
+                ).concat(recent)
+            )
+            .withConditionExpression(condition)
+            .withExpressionAttributeNames(names)
+            .withExpressionAttributeValues(values);
+    }
+
+    /**
+     * Size of the item in DynamoDB, in bytes.
+     * @param attrs Attributes of the item
+     * @return Size, a bit more than the real one
+     */
+    private static long size(final Map<String, AttributeValue> attrs) {
+        long size = 0L;
+        for (final Map.Entry<String, AttributeValue> ent : attrs.entrySet()) {
+            size += (long) DyTalk.utf(ent.getKey())
+                + DyTalk.size(ent.getValue());
+        }
+        return size;
+    }
+
+    /**
+     * Size of the attribute value in DynamoDB, in bytes.
+     * @param value The value
+     * @return Size, a bit more than the real one
+     */
+    private static long size(final AttributeValue value) {
+        long size = 1L;
+        if (value.getS() != null) {
+            size += (long) DyTalk.utf(value.getS());
+        } else if (value.getN() != null) {
+            size += (long) value.getN().length();
+        } else if (value.getB() != null) {
+            size += (long) value.getB().remaining();
+        } else if (value.getL() != null) {
+            for (final AttributeValue item : value.getL()) {
+                size += DyTalk.size(item);
+            }
+        } else if (value.getM() != null) {
+            size += DyTalk.size(value.getM());
+        }
+        return size;
+    }
+
+    /**
+     * Length of the text in UTF-8, in bytes.
+     * @param text The text
+     * @return Length
+     */
+    private static int utf(final String text) {
+        return text.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Values of projected paths in the document, NULL if absent.
+     * @param node The document
+     * @return Map of values
+     */
+    private static AttributeValue meta(final Node node) {
+        final Map<String, String> found =
+            new Projection(DyTalk.PROJECTED).apply(node);
+        final Map<String, AttributeValue> map = new HashMap<>(0);
+        for (final String path : DyTalk.PROJECTED) {
+            if (found.containsKey(path)) {
+                map.put(path, new AttributeValue(found.get(path)));
+            } else {
+                map.put(path, new AttributeValue().withNULL(true));
+            }
+        }
+        return new AttributeValue().withM(map);
+    }
+
+    /**
+     * Is the talk active?
+     * @param attrs Attributes of the item
+     * @return TRUE if active
+     */
+    private static boolean active(final Map<String, AttributeValue> attrs) {
+        final AttributeValue active = attrs.get(DyTalks.ATTR_ACTIVE);
+        return active != null && Boolean.parseBoolean(active.getS());
+    }
+
+    /**
+     * Is the talk public?
+     *
+     * <p>Items saved before the "public" attribute was introduced
+     * don't have it, their XML is read then.</p>
+     * @param attrs Attributes of the item
+     * @return TRUE if public
+     * @throws IOException If fails
+     */
+    private static boolean open(final Map<String, AttributeValue> attrs)
+        throws IOException {
+        final AttributeValue open = attrs.get(DyTalks.ATTR_PUBLIC);
+        final boolean yes;
+        if (open == null) {
+            yes = !DyTalk.cached(
+                attrs.get(DyTalks.HASH).getS(),
+                attrs.get(DyTalks.ATTR_UPDATED),
+                () -> DyTalk.xml(attrs)
+            ).nodes("/talk[@public='true']").isEmpty();
+        } else {
+            yes = Boolean.parseBoolean(open.getS());
+        }
+        return yes;
+    }
+
+    /**
+     * Version of the item, zero if it was never modified.
+     * @param attrs Attributes of the item
+     * @return Version
+     */
+    private static long version(final Map<String, AttributeValue> attrs) {
+        long version = 0L;
+        if (attrs.containsKey(DyTalks.ATTR_VERSION)) {
+            version = Long.parseLong(attrs.get(DyTalks.ATTR_VERSION).getN());
+        }
+        return version;
+    }
+
+    /**
+     * Expectation of the version of the item, as we read it.
+     * @param attrs Attributes of the item
+     * @return Expected value
+     */
+    private static ExpectedAttributeValue expected(
+        final Map<String, AttributeValue> attrs) {
+        final ExpectedAttributeValue expected;
+        if (attrs.containsKey(DyTalks.ATTR_VERSION)) {
+            expected = new ExpectedAttributeValue(
+                attrs.get(DyTalks.ATTR_VERSION)
+            );
+        } else {
+            expected = new ExpectedAttributeValue(false);
+        }
+        return expected;
     }
 
     /**
-     * Unzip the XML.
-     * @param bytes The XML content
-     * @return Unzipped content
+     * Update of the attribute, which puts the talk into the
+     * sparse index of recent talks, or removes it from there.
+     * @param active Is it active
+     * @param open Is it public
+     * @return Update
+     */
+    private static AttributeValueUpdate recent(final boolean active,
+        final boolean open) {
+        final AttributeValueUpdate update;
+        if (!active && open) {
+            update = new AttributeValueUpdate(
+                new AttributeValue(Boolean.toString(true)),
+                AttributeAction.PUT
+            );
+        } else {
+            update = new AttributeValueUpdate().withAction(
+                AttributeAction.DELETE
+            );
+        }
+        return update;
+    }
+
+    /**
+     * Apply directives to the XML and validate it.
+     * @param xml The XML
+     * @param dirs Directives to apply
+     * @return Modified document
+     */
+    private static Node apply(final XML xml, final Iterable<Directive> dirs) {
+        final Node node = xml.node();
+        try {
+            new Xembler(dirs).apply(node);
+        } catch (final ImpossibleModificationException ex) {
+            throw new IllegalStateException(
+                String.format(
+                    "failed to apply %s to %s",
+                    dirs.toString(), xml
+                ),
+                ex
+            );
+        }
+        return new StrictXML(new XMLDocument(node), Talk.SCHEMA).node();
+    }
+
+    /**
+     * Fetch all attributes of an item, with a consistent read.
+     * @param aws DynamoDB client
+     * @param table Table name
+     * @param key Key of the item
+     * @return Attributes
+     */
+    private static Map<String, AttributeValue> fetch(final AmazonDynamoDB aws,
+        final String table, final Map<String, AttributeValue> key) {
+        final Map<String, AttributeValue> attrs = aws.getItem(
+            new GetItemRequest()
+                .withTableName(table)
+                .withKey(key)
+                .withConsistentRead(true)
+        ).getItem();
+        if (attrs == null) {
+            throw new IllegalStateException(
+                String.format(
+                    "talk \"%s\" is absent",
+                    key.get(DyTalks.HASH).getS()
+                )
+            );
+        }
+        return attrs;
+    }
+
+    /**
+     * Read XML from the attributes of an item.
+     * @param attrs Attributes
+     * @return The XML
      * @throws IOException If fails
      */
-    private static String unzip(final byte[] bytes) throws IOException {
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        IOUtils.copy(
-            new GZIPInputStream(new ByteArrayInputStream(bytes)),
-            baos
+    private static XML xml(final Map<String, AttributeValue> attrs)
+        throws IOException {
+        final String xml;
+        if (attrs.containsKey(DyTalks.ATTR_XML_ZIP)) {
+            xml = DyTalk.codec(attrs.get(DyTalks.ATTR_CODEC)).decode(
+                attrs.get(DyTalks.ATTR_XML_ZIP).getB().array()
+            );
+        } else {
+            xml = attrs.get(DyTalks.ATTR_XML).getS();
+        }
+        return DyTalk.xml(
+            xml, attrs.get(DyTalks.ATTR_SCHEMA), new Journal(attrs)
         );
-        return new String(baos.toByteArray(), Charset.forName(UTF_8));
+    }
+
+    /**
+     * Codec of the item.
+     * @param name Name of the codec or NULL if the item was saved
+     *  before codecs were introduced
+     * @return Codec
+     */
+    private static Codec codec(final AttributeValue name) {
+        final Codec codec;
+        if (name == null) {
+            codec = DyTalk.GZIP;
+        } else if (DyTalk.CODEC.name().equals(name.getS())) {
+            codec = DyTalk.CODEC;
+        } else if (DyTalk.GZIP.name().equals(name.getS())) {
+            codec = DyTalk.GZIP;
+        } else {
+            throw new IllegalStateException(
+                String.format("unknown codec \"%s\"", name.getS())
+            );
+        }
+        return codec;
+    }
+
+    /**
+     * Upgrade, if necessary, apply the journal and validate the XML.
+     * @param xml The XML content
+     * @param schema Revision of its schema or NULL if unknown
+     * @param journal Journal of modifications not compacted yet
+     * @return The XML
+     * @checkstyle ParameterNameCheck (3 lines)
+     */
+    private static XML xml(final String xml, final AttributeValue schema,
+        final Journal journal) {
+        final XML doc;
+        if (schema != null
+            && Long.parseLong(schema.getN()) == Talk.REVISION) {
+            doc = new XMLDocument(xml);
+        } else {
+            doc = Talk.UPGRADE.transform(new XMLDocument(xml));
+        }
+        return new StrictXML(journal.apply(doc), Talk.SCHEMA);
+    }
+
+    /**
+     * Validated document from the cache or load it.
+     * @param name Name of the talk
+     * @param updated When it was updated
+     * @param loader Loader of the document
+     * @return The XML
+     * @throws IOException If fails
+     */
+    private static XML cached(final String name, final AttributeValue updated,
+        final Callable<XML> loader) throws IOException {
+        try {
+            return DyTalk.DOCS.get(
+                String.format("%s %s", name, updated.getN()), loader
+            );
+        } catch (final ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (final UncheckedExecutionException ex) {
+            throw (RuntimeException) ex.getCause();
+        }
+    }
+
+    /**
+     * Numeric attribute value.
+     * @param num The number
+     * @return Value
+     */
+    private static AttributeValue numeric(final long num) {
+        return new AttributeValue().withN(Long.toString(num));
+    }
+
+    /**
+     * Date of the next update, which is always later than the previous.
+     * @param attrs Attributes of the item
+     * @return Milliseconds
+     */
+    private static long next(final Map<String, AttributeValue> attrs) {
+        long now = System.currentTimeMillis();
+        if (attrs.containsKey(DyTalks.ATTR_UPDATED)) {
+            now = Math.max(
+                now, Long.parseLong(attrs.get(DyTalks.ATTR_UPDATED).getN()) + 1L
+            );
+        }
+        return now;
     }
 
 }
@@ -30,26 +30,44 @@
 package com.rultor.dynamo;
 
 import co.stateful.Counter;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
-import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
-import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
 import com.amazonaws.services.dynamodbv2.model.Select;
 import com.google.common.collect.Iterables;
-import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Tv;
 import com.jcabi.dynamo.Attributes;
 import com.jcabi.dynamo.Conditions;
+import com.jcabi.dynamo.Item;
 import com.jcabi.dynamo.QueryValve;
 import com.jcabi.dynamo.Region;
+import com.jcabi.dynamo.Table;
+import com.rultor.spi.Page;
+import com.rultor.spi.Shard;
 import com.rultor.spi.Talk;
 import com.rultor.spi.Talks;
 import java.io.IOException;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
-import org.cactoos.iterable.Filtered;
 import org.cactoos.iterable.Limited;
 import org.cactoos.iterable.Mapped;
+import org.cactoos.list.SolidList;
 
 /**
  * Talks in Dynamo.
@@ -59,8 +77,7 @@ import org.cactoos.iterable.Mapped;
  * @since 1.0
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
  */
-@Immutable
-@ToString
+@ToString(of = "region")
 @EqualsAndHashCode(of = "region")
 @SuppressWarnings("PMD.TooManyMethods")
 public final class DyTalks implements Talks {
@@ -88,6 +105,12 @@ public final class DyTalks implements Talks {
      */
     public static final String IDX_SIBLINGS = "siblings";
 
+    /**
+     * Index name, sparse, with public passive talks only.
+     * @since 2.0
+     */
+    public static final String IDX_RECENT = "recent";
+
     /**
      * Talk unique name.
      */
@@ -125,15 +148,105 @@ public final class DyTalks implements Talks {
      */
     public static final String ATTR_UPDATED = "updated";
 
+    /**
+     * Version of the XML, incremented on every modification.
+     * @since 2.0
+     */
+    public static final String ATTR_VERSION = "version";
+
+    /**
+     * Revision of the schema of the XML, see {@link Talk#REVISION}.
+     * @since 2.0
+     */
+    public static final String ATTR_SCHEMA = "schema";
+
+    /**
+     * Name of the codec of the XML.
+     * @since 2.0
+     */
+    public static final String ATTR_CODEC = "codec";
+
+    /**
+     * How many logs were moved to the archive table.
+     * @since 2.0
+     */
+    public static final String ATTR_ARCHIVED = "archived";
+
+    /**
+     * Journal of modifications, not compacted into the XML yet.
+     * @since 2.0
+     */
+    public static final String ATTR_JOURNAL = "journal";
+
+    /**
+     * Is it public, the same as /talk/@public in the XML.
+     * @since 2.0
+     */
+    public static final String ATTR_PUBLIC = "public";
+
+    /**
+     * Present (and "true") only when the talk is public and passive,
+     * the hash of the sparse index {@link #IDX_RECENT}.
+     * @since 2.0
+     */
+    public static final String ATTR_RECENT = "recent";
+
+    /**
+     * Values of a few paths of the XML, see {@link Talk#project(String...)}.
+     * @since 2.0
+     */
+    public static final String ATTR_META = "meta";
+
+    /**
+     * Table with old logs of archives of talks.
+     * @since 2.0
+     */
+    public static final String TBL_ARCHIVE = "archive";
+
+    /**
+     * Name of the talk, in the archive table.
+     * @since 2.0
+     */
+    public static final String ARCHIVE_HASH = "talk";
+
+    /**
+     * Position of the log in the archive, in the archive table.
+     * @since 2.0
+     */
+    public static final String ARCHIVE_RANGE = "pos";
+
+    /**
+     * XML of the log, in the archive table.
+     * @since 2.0
+     */
+    public static final String ATTR_LOG = "log";
+
+    /**
+     * How many items to load in one batch, the maximum DynamoDB allows.
+     */
+    private static final int BATCH = Tv.HUNDRED;
+
+    /**
+     * How many times to ask DynamoDB for keys of a batch it didn't
+     * process.
+     */
+    private static final int ATTEMPTS = Tv.EIGHT;
+
+    /**
+     * Pause before the first repeated request of a batch, in
+     * milliseconds.
+     */
+    private static final long BACKOFF = 50L;
+
     /**
      * Region we're in.
      */
     private final transient Region region;
 
     /**
-     * Counter of talks.
+     * Numbers of talks.
      */
-    private final transient Counter counter;
+    private final transient Numbers numbers;
 
     /**
      * Public ctor.
@@ -142,7 +255,7 @@ public final class DyTalks implements Talks {
      */
     public DyTalks(final Region reg, final Counter cnt) {
         this.region = reg;
-        this.counter = cnt;
+        this.numbers = new Numbers(cnt, (long) Tv.HUNDRED);
     }
 
     @Override
@@ -210,102 +323,384 @@ public final class DyTalks implements Talks {
                 .where(DyTalks.HASH, name),
             item -> true
         );
+        Iterables.removeIf(
+            this.region.table(DyTalks.TBL_ARCHIVE)
+                .frame()
+                .where(DyTalks.ARCHIVE_HASH, name),
+            item -> true
+        );
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The talk is created only if it doesn't exist yet, otherwise
+     * {@link IllegalArgumentException} is thrown.</p>
+     */
     @Override
     public void create(final String repo, final String name)
         throws IOException {
-        final long number = this.counter.incrementAndGet(1L);
-        this.region.table(DyTalks.TBL).put(
-            new Attributes()
-                .with(DyTalks.HASH, name)
-                .with(DyTalks.ATTR_ACTIVE, Boolean.toString(true))
-                .with(DyTalks.ATTR_REPO, repo)
-                .with(DyTalks.ATTR_NUMBER, number)
-                .with(DyTalks.ATTR_UPDATED, System.currentTimeMillis())
-                .with(
-                    DyTalks.ATTR_XML,
-                    String.format("<talk name='%s' number='%d'/>", name, number)
-                )
-        );
+        final long number = this.numbers.next();
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            aws.putItem(
+                new PutItemRequest()
+                    .withTableName(this.region.table(DyTalks.TBL).name())
+                    .withItem(
+                        new Attributes()
+                            .with(DyTalks.HASH, name)
+                            .with(DyTalks.ATTR_ACTIVE, Boolean.toString(true))
+                            .with(DyTalks.ATTR_REPO, repo)
+                            .with(DyTalks.ATTR_NUMBER, number)
+                            .with(
+                                DyTalks.ATTR_UPDATED,
+                                System.currentTimeMillis()
+                            )
+                            .with(DyTalks.ATTR_VERSION, 0L)
+                            .with(
+                                DyTalks.ATTR_XML,
+                                String.format(
+                                    "<talk name='%s' number='%d'/>",
+                                    name, number
+                                )
+                            )
+                    )
+                    .withConditionExpression("attribute_not_exists(#name)")
+                    .withExpressionAttributeNames(
+                        Collections.singletonMap("#name", DyTalks.HASH)
+                    )
+            );
+        } catch (final ConditionalCheckFailedException ex) {
+            throw new IllegalArgumentException(
+                String.format("talk \"%s\" already exists", name),
+                ex
+            );
+        } finally {
+            aws.shutdown();
+        }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Talks are loaded together, in batches, with their XML, which
+     * is read again only after they are modified.</p>
+     */
     @Override
     public Iterable<Talk> active() {
-        return new Mapped<>(
-            input -> new DyTalk(input),
-            this.region.table(DyTalks.TBL)
-                .frame()
-                .through(
-                    new QueryValve()
-                        .withIndexName(DyTalks.IDX_ACTIVE)
-                        .withConsistentRead(false)
-                        .withSelect(Select.SPECIFIC_ATTRIBUTES)
-                        .withAttributesToGet(DyTalks.HASH, DyTalks.ATTR_NUMBER)
-                )
-                .where(DyTalks.ATTR_ACTIVE, Boolean.toString(true))
+        return this.active(new Shard.Whole());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Only names of talks are taken from the index, talks of other
+     * shards are not loaded in batches.</p>
+     */
+    @Override
+    public Iterable<Talk> active(final Shard shard) {
+        return Iterables.concat(
+            Iterables.transform(
+                Iterables.partition(
+                    Iterables.filter(
+                        this.region.table(DyTalks.TBL)
+                            .frame()
+                            .through(
+                                new QueryValve()
+                                    .withIndexName(DyTalks.IDX_ACTIVE)
+                                    .withConsistentRead(false)
+                                    .withSelect(Select.SPECIFIC_ATTRIBUTES)
+                                    .withAttributesToGet(
+                                        DyTalks.HASH, DyTalks.ATTR_NUMBER
+                                    )
+                            )
+                            .where(
+                                DyTalks.ATTR_ACTIVE, Boolean.toString(true)
+                            ),
+                        item -> DyTalks.mine(shard, item)
+                    ),
+                    DyTalks.BATCH
+                ),
+                this::load
+            )
         );
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Only public passive talks are in the sparse index
+     * {@link #IDX_RECENT}, that's why no filtering is needed. Talks
+     * archived before the index was introduced are not there, until
+     * they are modified or switched. While the index has less than
+     * five talks, a few most recent passive talks are looked through
+     * too, see {@link #passive()}. Nothing is written here.</p>
+     */
     @Override
     public Iterable<Talk> recent() {
-        return new Limited<>(
-            Tv.FIVE,
-            new Filtered<>(
-                input -> {
-                    try {
-                        return !input.read().nodes(
-                            "/talk[@public='true']"
-                        ).isEmpty();
-                    } catch (final IOException ex) {
-                        throw new IllegalStateException(ex);
-                    }
-                },
+        final Collection<Talk> talks = new SolidList<>(
+            new Limited<>(
+                Tv.FIVE,
                 new Mapped<>(
                     input -> new DyTalk(input),
                     this.region.table(DyTalks.TBL)
                         .frame()
                         .through(
                             new QueryValve()
-                                .withIndexName(DyTalks.IDX_ACTIVE)
+                                .withIndexName(DyTalks.IDX_RECENT)
                                 .withScanIndexForward(false)
                                 .withConsistentRead(false)
                                 .withLimit(Tv.FIVE)
                                 .withSelect(Select.ALL_PROJECTED_ATTRIBUTES)
                         )
-                        .where(
-                            DyTalks.ATTR_ACTIVE, Boolean.toString(false)
-                        )
+                        .where(DyTalks.ATTR_RECENT, Boolean.toString(true))
                 )
             )
         );
+        Collection<Talk> recent = talks;
+        if (talks.size() < Tv.FIVE) {
+            final Collection<Talk> passive = this.passive();
+            if (passive.size() > talks.size()) {
+                recent = passive;
+            }
+        }
+        return recent;
     }
 
     @Override
-    public Iterable<Talk> siblings(final String repo, final Date since) {
-        return new Mapped<>(
-            input -> new DyTalk(input),
+    public Page recent(final String cursor, final int size) {
+        return this.page(
+            DyTalks.IDX_RECENT, DyTalks.ATTR_RECENT, Boolean.toString(true),
+            new Cursor(cursor), size
+        );
+    }
+
+    @Override
+    public Page siblings(final String repo, final String cursor,
+        final int size) {
+        return this.page(
+            DyTalks.IDX_SIBLINGS, DyTalks.ATTR_REPO, repo,
+            new Cursor(cursor), size
+        );
+    }
+
+    /**
+     * Query one page of the index, the most recently updated first.
+     * @param index The index, with "updated" as a range key
+     * @param attr The hash attribute of the index
+     * @param value Its value
+     * @param cursor The cursor of the page
+     * @param size Maximum amount of talks in the page
+     * @return Page
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    private Page page(final String index, final String attr,
+        final String value, final Cursor cursor, final int size) {
+        final Table table = this.region.table(DyTalks.TBL);
+        final QueryRequest request = new QueryRequest()
+            .withTableName(table.name())
+            .withIndexName(index)
+            .withKeyConditionExpression("#hash = :hash")
+            .withExpressionAttributeNames(
+                Collections.singletonMap("#hash", attr)
+            )
+            .withExpressionAttributeValues(
+                Collections.singletonMap(":hash", new AttributeValue(value))
+            )
+            .withScanIndexForward(false)
+            .withConsistentRead(false)
+            .withLimit(size);
+        if (!cursor.empty()) {
+            request.setExclusiveStartKey(cursor.key());
+        }
+        final AmazonDynamoDB aws = this.region.aws();
+        final QueryResult result;
+        try {
+            result = aws.query(request);
+        } catch (final AmazonServiceException ex) {
+            if (!cursor.empty()
+                && "ValidationException".equals(ex.getErrorCode())) {
+                throw new IllegalArgumentException(
+                    String.format(
+                        "cursor \"%s\" doesn't match the index \"%s\"",
+                        cursor.asString(), index
+                    ),
+                    ex
+                );
+            }
+            throw ex;
+        } finally {
+            aws.shutdown();
+        }
+        final Collection<Talk> talks = new ArrayList<>(result.getCount());
+        for (final Map<String, AttributeValue> attrs : result.getItems()) {
+            talks.add(
+                new DyTalk(
+                    new KeyItem(table, attrs.get(DyTalks.HASH).getS()),
+                    attrs
+                )
+            );
+        }
+        return new Page(
+            talks, new Cursor(result.getLastEvaluatedKey()).asString()
+        );
+    }
+
+    /**
+     * The most recent public passive talks, found among twenty
+     * most recent passive talks.
+     *
+     * <p>The XML is read only if the item doesn't have the "public"
+     * attribute yet.</p>
+     * @return Talks, not more than five
+     */
+    private Collection<Talk> passive() {
+        final Iterator<Item> items = new Limited<>(
+            Tv.TWENTY,
             this.region.table(DyTalks.TBL)
                 .frame()
                 .through(
                     new QueryValve()
-                        .withIndexName(DyTalks.IDX_SIBLINGS)
+                        .withIndexName(DyTalks.IDX_ACTIVE)
                         .withScanIndexForward(false)
                         .withConsistentRead(false)
                         .withLimit(Tv.TWENTY)
                         .withSelect(Select.ALL_PROJECTED_ATTRIBUTES)
                 )
-                .where(DyTalks.ATTR_REPO, repo)
-                .where(
-                    DyTalks.ATTR_UPDATED,
-                    new Condition()
-                        .withComparisonOperator(ComparisonOperator.LT)
-                        .withAttributeValueList(
-                            new AttributeValue().withN(
-                                Long.toString(since.getTime())
-                            )
-                        )
+                .where(DyTalks.ATTR_ACTIVE, Boolean.toString(false))
+        ).iterator();
+        final Collection<Talk> talks = new ArrayList<>(Tv.FIVE);
+        try {
+            while (items.hasNext() && talks.size() < Tv.FIVE) {
+                final Item item = items.next();
+                final Talk talk = new DyTalk(item);
+                final boolean open;
+                if (item.has(DyTalks.ATTR_PUBLIC)) {
+                    open = Boolean.parseBoolean(
+                        item.get(DyTalks.ATTR_PUBLIC).getS()
+                    );
+                } else {
+                    open = !talk.read()
+                        .nodes("/talk[@public='true']").isEmpty();
+                }
+                if (open) {
+                    talks.add(talk);
+                }
+            }
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return talks;
+    }
+
+    /**
+     * Is this item in the shard?
+     * @param shard The shard
+     * @param item The item, with its name
+     * @return TRUE if it's in the shard
+     */
+    private static boolean mine(final Shard shard, final Item item) {
+        try {
+            return shard.mine(item.get(DyTalks.HASH).getS());
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Load items, with all their attributes, in one batch.
+     * @param items Items to load, not more than {@link #BATCH}
+     * @return Talks
+     */
+    private Collection<Talk> load(final List<Item> items) {
+        final String table = this.region.table(DyTalks.TBL).name();
+        final Collection<Map<String, AttributeValue>> keys =
+            new ArrayList<>(items.size());
+        try {
+            for (final Item item : items) {
+                keys.add(
+                    Collections.singletonMap(
+                        DyTalks.HASH, item.get(DyTalks.HASH)
+                    )
+                );
+            }
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        final Map<String, Map<String, AttributeValue>> loaded =
+            new HashMap<>(items.size());
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            Map<String, KeysAndAttributes> request = Collections.singletonMap(
+                table,
+                new KeysAndAttributes().withKeys(keys).withConsistentRead(true)
+            );
+            int attempt = 0;
+            while (!request.isEmpty()) {
+                if (attempt > 0) {
+                    DyTalks.pause(attempt, request.get(table));
+                }
+                final BatchGetItemResult result = aws.batchGetItem(
+                    new BatchGetItemRequest().withRequestItems(request)
+                );
+                for (final Map<String, AttributeValue> attrs
+                    : result.getResponses().getOrDefault(
+                        table, Collections.emptyList()
+                    )) {
+                    loaded.put(attrs.get(DyTalks.HASH).getS(), attrs);
+                }
+                request = result.getUnprocessedKeys();
+                ++attempt;
+            }
+        } finally {
+            aws.shutdown();
+        }
+        final Collection<Talk> talks = new ArrayList<>(items.size());
+        for (final Item item : items) {
+            final Map<String, AttributeValue> attrs;
+            try {
+                attrs = loaded.get(item.get(DyTalks.HASH).getS());
+            } catch (final IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+            if (attrs == null) {
+                talks.add(new DyTalk(item));
+            } else {
+                talks.add(new DyTalk(item, attrs));
+            }
+        }
+        return talks;
+    }
+
+    /**
+     * Wait before asking for unprocessed keys again.
+     *
+     * <p>DynamoDB leaves keys unprocessed when it's throttling, that's
+     * why every next attempt waits twice as long as the previous one,
+     * with a random jitter, and after a few attempts it gives up.</p>
+     *
+     * @param attempt Number of the attempt, starting from one
+     * @param keys Keys still unprocessed
+     */
+    private static void pause(final int attempt, final KeysAndAttributes keys) {
+        if (attempt >= DyTalks.ATTEMPTS) {
+            throw new IllegalStateException(
+                String.format(
+                    "%d talks are still unprocessed after %d attempts",
+                    keys.getKeys().size(), attempt
                 )
+            );
+        }
+        final long max = Math.min(
+            DyTalks.BACKOFF << attempt, TimeUnit.SECONDS.toMillis(Tv.FIVE)
         );
+        try {
+            TimeUnit.MILLISECONDS.sleep(
+                max / 2L + ThreadLocalRandom.current().nextLong(max / 2L + 1L)
+            );
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
     }
 }
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.dynamo;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.immutable.Array;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.cactoos.iterable.Mapped;
+import org.w3c.dom.Node;
+import org.xembly.Directives;
+import org.xembly.ImpossibleModificationException;
+import org.xembly.SyntaxException;
+import org.xembly.Xembler;
+
+/**
+ * Journal of modifications of a talk, which are not compacted into
+ * its XML yet.
+ *
+ * <p>Every entry is a Xembly script, applied to the XML of the talk
+ * when it's read, in the order they were appended.</p>
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = "entries")
+final class Journal {
+
+    /**
+     * Maximum amount of entries, before compaction.
+     */
+    private static final int MAX = Tv.TWENTY;
+
+    /**
+     * Maximum total size of entries, in chars, before compaction.
+     * @checkstyle MagicNumber (2 lines)
+     */
+    private static final int SIZE = 32 << 10;
+
+    /**
+     * Entries.
+     */
+    private final transient Array<String> entries;
+
+    /**
+     * Ctor.
+     * @param attrs Attributes of the item
+     */
+    Journal(final Map<String, AttributeValue> attrs) {
+        this(Journal.entries(attrs.get(DyTalks.ATTR_JOURNAL)));
+    }
+
+    /**
+     * Ctor.
+     * @param list Entries
+     */
+    private Journal(final Iterable<String> list) {
+        this.entries = new Array<>(list);
+    }
+
+    /**
+     * Can this script be appended, or it's time to compact?
+     * @param script Xembly script
+     * @return TRUE if it can be appended
+     */
+    public boolean fits(final String script) {
+        int size = script.length();
+        for (final String entry : this.entries) {
+            size += entry.length();
+        }
+        return this.entries.size() < Journal.MAX && size <= Journal.SIZE;
+    }
+
+    /**
+     * Apply all entries to the XML.
+     * @param xml The XML
+     * @return New XML, not validated
+     */
+    public XML apply(final XML xml) {
+        XML result = xml;
+        if (!this.entries.isEmpty()) {
+            final Node node = xml.node();
+            for (final String entry : this.entries) {
+                try {
+                    new Xembler(new Directives(entry)).apply(node);
+                } catch (final SyntaxException
+                    | ImpossibleModificationException ex) {
+                    throw new IllegalStateException(
+                        String.format("broken journal entry: %s", entry),
+                        ex
+                    );
+                }
+            }
+            result = new XMLDocument(node);
+        }
+        return result;
+    }
+
+    /**
+     * Entries found in the attribute.
+     * @param attr The attribute or NULL if absent
+     * @return Entries
+     */
+    private static Iterable<String> entries(final AttributeValue attr) {
+        final List<AttributeValue> list;
+        if (attr == null) {
+            list = Collections.emptyList();
+        } else {
+            list = attr.getL();
+        }
+        return new Mapped<>(AttributeValue::getS, list);
+    }
+
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.dynamo;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.dynamo.Frame;
+import com.jcabi.dynamo.Item;
+import com.jcabi.dynamo.QueryValve;
+import com.jcabi.dynamo.Table;
+import java.io.IOException;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Item of the talks table, known only by its key.
+ *
+ * <p>The item is not fetched until it is needed. It's used for talks
+ * which were loaded with the AWS client directly, together with all
+ * their attributes, and most probably will never need the item.</p>
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@Immutable
+@ToString(of = "name")
+@EqualsAndHashCode(of = { "table", "name" })
+final class KeyItem implements Item {
+
+    /**
+     * The table.
+     */
+    private final transient Table table;
+
+    /**
+     * The name of the talk.
+     */
+    private final transient String name;
+
+    /**
+     * Ctor.
+     * @param tbl The table
+     * @param key The name of the talk
+     */
+    KeyItem(final Table tbl, final String key) {
+        this.table = tbl;
+        this.name = key;
+    }
+
+    @Override
+    public AttributeValue get(final String attr) throws IOException {
+        return this.item().get(attr);
+    }
+
+    @Override
+    public boolean has(final String attr) throws IOException {
+        return this.item().has(attr);
+    }
+
+    @Override
+    public Map<String, AttributeValue> put(final String attr,
+        final AttributeValueUpdate value) throws IOException {
+        return this.item().put(attr, value);
+    }
+
+    @Override
+    public Map<String, AttributeValue> put(
+        final Map<String, AttributeValueUpdate> updates) throws IOException {
+        return this.item().put(updates);
+    }
+
+    @Override
+    public Frame frame() {
+        return this.table.frame().where(DyTalks.HASH, this.name);
+    }
+
+    /**
+     * Fetch the item.
+     * @return Item
+     */
+    private Item item() {
+        return this.frame()
+            .through(new QueryValve().withLimit(1))
+            .iterator().next();
+    }
+
+}
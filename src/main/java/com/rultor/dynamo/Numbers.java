@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.dynamo;
+
+import co.stateful.Counter;
+import java.io.IOException;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Numbers of talks, reserved in the counter by blocks.
+ *
+ * <p>The counter keeps the largest number reserved so far, by any node.
+ * A block of numbers is reserved with one call to the counter and then
+ * numbers are given out locally, one by one, until the block is over.
+ * Numbers reserved but not used by a node which stops are lost, that's
+ * why numbers may have gaps, and numbers of talks created by different
+ * nodes may not grow in the order of creation.</p>
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString(of = "block")
+@EqualsAndHashCode(of = { "counter", "block" })
+final class Numbers {
+
+    /**
+     * Counter with the largest number reserved.
+     */
+    private final transient Counter counter;
+
+    /**
+     * How many numbers to reserve at once.
+     */
+    private final transient long block;
+
+    /**
+     * Lock.
+     */
+    private final transient Object lock;
+
+    /**
+     * Next number to give out.
+     */
+    private transient long current;
+
+    /**
+     * The largest number reserved.
+     */
+    private transient long limit;
+
+    /**
+     * Ctor.
+     * @param cnt Counter
+     * @param size How many numbers to reserve at once
+     */
+    Numbers(final Counter cnt, final long size) {
+        this.counter = cnt;
+        this.block = size;
+        this.lock = new Object();
+    }
+
+    /**
+     * Give out the next number.
+     * @return Number
+     * @throws IOException If fails
+     */
+    public long next() throws IOException {
+        synchronized (this.lock) {
+            if (this.current == 0L || this.current > this.limit) {
+                this.limit = this.counter.incrementAndGet(this.block);
+                this.current = this.limit - this.block + 1L;
+            }
+            final long number = this.current;
+            ++this.current;
+            return number;
+        }
+    }
+
+}
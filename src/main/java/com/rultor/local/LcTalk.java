@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.local;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.xml.StrictXML;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import com.rultor.spi.Projection;
+import com.rultor.spi.Talk;
+import java.io.IOException;
+import java.util.Date;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.w3c.dom.Node;
+import org.xembly.Directive;
+import org.xembly.ImpossibleModificationException;
+import org.xembly.Xembler;
+
+/**
+ * Talk in a local {@link Store}.
+ *
+ * <p>XML is validated before it gets into the store, that's why it's
+ * not validated again when being read.</p>
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString(of = "label")
+@EqualsAndHashCode(of = "label")
+final class LcTalk implements Talk {
+
+    /**
+     * The store.
+     */
+    private final transient Store store;
+
+    /**
+     * The name of the talk.
+     */
+    private final transient String label;
+
+    /**
+     * Ctor.
+     * @param str The store
+     * @param name The name of the talk
+     */
+    LcTalk(final Store str, final String name) {
+        this.store = str;
+        this.label = name;
+    }
+
+    @Override
+    public Long number() {
+        return this.store.row(this.label).number();
+    }
+
+    @Override
+    public String name() {
+        return this.label;
+    }
+
+    @Override
+    public Date updated() {
+        return new Date(this.store.row(this.label).updated());
+    }
+
+    @Override
+    public XML read() throws IOException {
+        return new XMLDocument(this.store.xml(this.label));
+    }
+
+    @Override
+    public Map<String, String> project(final String... paths)
+        throws IOException {
+        return new Projection(paths).apply(this.store.xml(this.label));
+    }
+
+    @Override
+    public XML full() throws IOException {
+        return this.read();
+    }
+
+    @Override
+    public void modify(final Iterable<Directive> dirs) throws IOException {
+        if (dirs.iterator().hasNext()) {
+            int attempt = 0;
+            while (true) {
+                final Store.Row row = this.store.row(this.label);
+                final Node node = this.read().node();
+                try {
+                    new Xembler(dirs).apply(node);
+                } catch (final ImpossibleModificationException ex) {
+                    throw new IllegalStateException(ex);
+                }
+                if (this.store.replace(
+                    row,
+                    new StrictXML(
+                        new XMLDocument(node), Talk.SCHEMA
+                    ).toString()
+                )) {
+                    break;
+                }
+                ++attempt;
+                if (attempt >= Tv.TEN) {
+                    throw new IllegalStateException(
+                        String.format(
+                            "failed to modify \"%s\" after %d attempts",
+                            this.label, attempt
+                        )
+                    );
+                }
+            }
+        }
+    }
+
+    @Override
+    public void active(final boolean yes) throws IOException {
+        this.store.active(this.label, yes);
+    }
+
+}
@@ -0,0 +1,258 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.local;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.xml.StrictXML;
+import com.jcabi.xml.XMLDocument;
+import com.rultor.spi.Page;
+import com.rultor.spi.Shard;
+import com.rultor.spi.Talk;
+import com.rultor.spi.Talks;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.cactoos.iterable.Filtered;
+import org.cactoos.iterable.Limited;
+import org.cactoos.iterable.Mapped;
+import org.xembly.Directives;
+import org.xembly.Xembler;
+
+/**
+ * Talks in a local embedded store, in a directory.
+ *
+ * <p>All talks are kept in an append-only log, see {@link Store},
+ * while their indexes are in memory. This is what a single server
+ * may use instead of DynamoDB.</p>
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString(of = "store")
+@EqualsAndHashCode(of = "store")
+@SuppressWarnings("PMD.TooManyMethods")
+public final class LcTalks implements Talks, Closeable {
+
+    /**
+     * The store.
+     */
+    private final transient Store store;
+
+    /**
+     * Ctor.
+     * @param dir The directory with the store
+     * @throws IOException If fails
+     */
+    public LcTalks(final File dir) throws IOException {
+        this.store = new Store(dir);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.store.close();
+    }
+
+    @Override
+    public boolean exists(final long number) {
+        return this.store.find(number) != null;
+    }
+
+    @Override
+    public Talk get(final long number) {
+        final Store.Row row = this.store.find(number);
+        if (row == null) {
+            throw new NoSuchElementException(
+                String.format("talk #%d is absent", number)
+            );
+        }
+        return new LcTalk(this.store, row.name());
+    }
+
+    @Override
+    public boolean exists(final String name) {
+        return this.store.find(name) != null;
+    }
+
+    @Override
+    public Talk get(final String name) {
+        return new LcTalk(this.store, this.store.row(name).name());
+    }
+
+    @Override
+    public void delete(final String name) {
+        try {
+            this.store.delete(name);
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Override
+    public void create(final String repo, final String name)
+        throws IOException {
+        this.store.create(
+            repo, name,
+            number -> new StrictXML(
+                Talk.UPGRADE.transform(
+                    new XMLDocument(
+                        new Xembler(
+                            new Directives()
+                                .add("talk")
+                                .attr("name", name)
+                                .attr("number", number)
+                        ).xmlQuietly()
+                    )
+                ),
+                Talk.SCHEMA
+            ).toString()
+        );
+    }
+
+    @Override
+    public Iterable<Talk> active() {
+        return this.talks(this.store.active());
+    }
+
+    @Override
+    public Iterable<Talk> active(final Shard shard) {
+        return this.talks(new Filtered<>(shard::mine, this.store.active()));
+    }
+
+    @Override
+    public Iterable<Talk> recent() {
+        return new Limited<>(
+            Tv.FIVE,
+            new Filtered<>(
+                input -> !input.read().nodes("/talk[@public='true']").isEmpty(),
+                this.talks(this.store.passive(Integer.MAX_VALUE))
+            )
+        );
+    }
+
+    @Override
+    public Page recent(final String cursor, final int size)
+        throws IOException {
+        final long updated = LcTalks.updated(cursor);
+        final String name = LcTalks.name(cursor);
+        final List<Store.Row> rows = this.store.passive(updated, name, size);
+        return new Page(
+            new Filtered<>(
+                input -> !input.read().nodes("/talk[@public='true']")
+                    .isEmpty(),
+                this.rows(rows)
+            ),
+            LcTalks.next(rows, size)
+        );
+    }
+
+    @Override
+    public Page siblings(final String repo, final String cursor,
+        final int size) {
+        final List<Store.Row> rows = this.store.siblings(
+            repo, LcTalks.updated(cursor), LcTalks.name(cursor), size
+        );
+        return new Page(this.rows(rows), LcTalks.next(rows, size));
+    }
+
+    /**
+     * Talks of the rows.
+     * @param rows Rows
+     * @return Talks
+     */
+    private Iterable<Talk> rows(final List<Store.Row> rows) {
+        return this.talks(new Mapped<>(Store.Row::name, rows));
+    }
+
+    /**
+     * Cursor of the next page.
+     * @param rows Rows in this page
+     * @param size Size of the page
+     * @return Cursor, which is the time of update and the name of
+     *  the last talk in the page, or empty if there are no more pages
+     */
+    private static String next(final List<Store.Row> rows, final int size) {
+        String next = "";
+        if (rows.size() >= size && !rows.isEmpty()) {
+            final Store.Row last = rows.get(rows.size() - 1);
+            next = String.format("%d %s", last.updated(), last.name());
+        }
+        return next;
+    }
+
+    /**
+     * Time of update in the cursor.
+     * @param cursor The cursor
+     * @return Milliseconds
+     * @throws IllegalArgumentException If the cursor is broken
+     */
+    private static long updated(final String cursor) {
+        final long updated;
+        if (cursor.isEmpty()) {
+            updated = Long.MAX_VALUE;
+        } else if (cursor.indexOf(' ') < 0) {
+            throw new IllegalArgumentException(
+                String.format("broken cursor \"%s\"", cursor)
+            );
+        } else {
+            updated = Long.parseLong(cursor.substring(0, cursor.indexOf(' ')));
+        }
+        return updated;
+    }
+
+    /**
+     * Name of the talk in the cursor.
+     * @param cursor The cursor
+     * @return Name
+     */
+    private static String name(final String cursor) {
+        final String name;
+        if (cursor.isEmpty()) {
+            name = "";
+        } else {
+            name = cursor.substring(cursor.indexOf(' ') + 1);
+        }
+        return name;
+    }
+
+    /**
+     * Talks by names.
+     * @param names Names
+     * @return Talks
+     */
+    private Iterable<Talk> talks(final Iterable<String> names) {
+        return new Mapped<>(name -> new LcTalk(this.store, name), names);
+    }
+
+}
@@ -0,0 +1,954 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.local;
+
+import com.jcabi.log.Logger;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongFunction;
+import java.util.zip.CRC32;
+import lombok.ToString;
+
+/**
+ * Append-only log of talks, with in-memory indexes.
+ *
+ * <p>Every record in the log file is its length, its CRC32 and its
+ * content. A record either puts the entire talk (with its XML) or
+ * deletes it. The log is replayed when the store is opened, and the
+ * indexes are built in memory: by name, by number, active talks,
+ * and talks of each repository, sorted by the time of update. Only
+ * the positions of XML documents in the file are kept in memory,
+ * they are read from the file when needed.</p>
+ *
+ * <p>A record which is incomplete or doesn't match its CRC32 (the
+ * server crashed in the middle of a write) is cut off, together
+ * with everything after it. When most of the file is occupied by
+ * records which are not relevant anymore, the file is compacted:
+ * live records are copied into a new one, which replaces the
+ * old one atomically.</p>
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+@ToString(of = "dir")
+@SuppressWarnings({"PMD.TooManyMethods", "PMD.AvoidDuplicateLiterals"})
+final class Store implements Closeable {
+
+    /**
+     * Put the talk.
+     */
+    private static final byte PUT = 1;
+
+    /**
+     * Delete the talk.
+     */
+    private static final byte DELETE = 2;
+
+    /**
+     * The largest number ever given to a talk.
+     */
+    private static final byte SEQ = 3;
+
+    /**
+     * Size of the record header: length and CRC32.
+     */
+    private static final int HEAD = Integer.BYTES + Long.BYTES;
+
+    /**
+     * Don't compact the file until there are so many garbage bytes.
+     * @checkstyle MagicNumber (2 lines)
+     */
+    private static final long MIN = 16L << 20;
+
+    /**
+     * The directory.
+     */
+    private final transient File dir;
+
+    /**
+     * Lock, readers share it, writers use it exclusively.
+     */
+    private final transient ReadWriteLock lock;
+
+    /**
+     * Talks by names.
+     */
+    private final transient Map<String, Store.Row> names;
+
+    /**
+     * Talks by numbers.
+     */
+    private final transient Map<Long, Store.Row> numbers;
+
+    /**
+     * Active talks, by names.
+     */
+    private final transient NavigableSet<Store.Row> actives;
+
+    /**
+     * Passive talks, the most recently updated first.
+     */
+    private final transient NavigableSet<Store.Row> passives;
+
+    /**
+     * Talks of repositories, the most recently updated first.
+     */
+    private final transient Map<String, NavigableSet<Store.Row>> repos;
+
+    /**
+     * The file with the log.
+     */
+    private transient FileChannel channel;
+
+    /**
+     * The end of the last complete record in the file.
+     */
+    private transient long end;
+
+    /**
+     * Bytes occupied by XML which is not relevant anymore.
+     */
+    private transient long garbage;
+
+    /**
+     * The largest number ever given to a talk.
+     */
+    private transient long last;
+
+    /**
+     * Ctor.
+     * @param path The directory with the log
+     * @throws IOException If fails
+     */
+    Store(final File path) throws IOException {
+        this.dir = path;
+        this.lock = new ReentrantReadWriteLock();
+        this.names = new HashMap<>(0);
+        this.numbers = new HashMap<>(0);
+        this.actives = new TreeSet<>(Comparator.comparing(Store.Row::name));
+        this.passives = new TreeSet<>(Store.Row.RECENT);
+        this.repos = new HashMap<>(0);
+        Files.createDirectories(path.toPath());
+        Files.deleteIfExists(this.tmp());
+        this.channel = FileChannel.open(
+            this.file(), StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE
+        );
+        this.recover();
+    }
+
+    @Override
+    public void close() throws IOException {
+        final Lock exclusive = this.lock.writeLock();
+        exclusive.lock();
+        try {
+            this.channel.close();
+        } finally {
+            exclusive.unlock();
+        }
+    }
+
+    /**
+     * Find the talk by name.
+     * @param name The name
+     * @return The talk or NULL if it's absent
+     */
+    public Store.Row find(final String name) {
+        final Lock shared = this.lock.readLock();
+        shared.lock();
+        try {
+            return this.names.get(name);
+        } finally {
+            shared.unlock();
+        }
+    }
+
+    /**
+     * Find the talk by number.
+     * @param number The number
+     * @return The talk or NULL if it's absent
+     */
+    public Store.Row find(final long number) {
+        final Lock shared = this.lock.readLock();
+        shared.lock();
+        try {
+            return this.numbers.get(number);
+        } finally {
+            shared.unlock();
+        }
+    }
+
+    /**
+     * Get the talk by name.
+     * @param name The name
+     * @return The talk
+     */
+    public Store.Row row(final String name) {
+        final Store.Row row = this.find(name);
+        if (row == null) {
+            throw new NoSuchElementException(
+                String.format("talk \"%s\" is absent", name)
+            );
+        }
+        return row;
+    }
+
+    /**
+     * Read the most recent XML of the talk.
+     * @param name The name
+     * @return XML
+     * @throws IOException If fails
+     */
+    public String xml(final String name) throws IOException {
+        final Lock shared = this.lock.readLock();
+        shared.lock();
+        try {
+            final Store.Row row = this.names.get(name);
+            if (row == null) {
+                throw new NoSuchElementException(
+                    String.format("talk \"%s\" is absent", name)
+                );
+            }
+            return new String(this.xml(row), StandardCharsets.UTF_8);
+        } finally {
+            shared.unlock();
+        }
+    }
+
+    /**
+     * Active talks.
+     * @return Names of them
+     */
+    public Collection<String> active() {
+        final Lock shared = this.lock.readLock();
+        shared.lock();
+        try {
+            return Store.names(this.actives, Integer.MAX_VALUE);
+        } finally {
+            shared.unlock();
+        }
+    }
+
+    /**
+     * Passive talks, the most recently updated first.
+     * @param max Maximum amount of them
+     * @return Names of them
+     */
+    public Collection<String> passive(final int max) {
+        final Lock shared = this.lock.readLock();
+        shared.lock();
+        try {
+            return Store.names(this.passives, max);
+        } finally {
+            shared.unlock();
+        }
+    }
+
+    /**
+     * Passive talks, updated after the given one, the most recently
+     * updated first.
+     * @param updated When the given talk was updated
+     * @param name The name of the given talk
+     * @param max Maximum amount of them
+     * @return Talks
+     */
+    public List<Store.Row> passive(final long updated, final String name,
+        final int max) {
+        final Lock shared = this.lock.readLock();
+        shared.lock();
+        try {
+            return Store.after(this.passives, updated, name, max);
+        } finally {
+            shared.unlock();
+        }
+    }
+
+    /**
+     * Talks of the repository, updated after the given one, the most
+     * recently updated first.
+     * @param repo The repository
+     * @param updated When the given talk was updated
+     * @param name The name of the given talk
+     * @param max Maximum amount of them
+     * @return Talks
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public List<Store.Row> siblings(final String repo, final long updated,
+        final String name, final int max) {
+        final Lock shared = this.lock.readLock();
+        shared.lock();
+        try {
+            final NavigableSet<Store.Row> rows = this.repos.get(repo);
+            final List<Store.Row> list;
+            if (rows == null) {
+                list = new ArrayList<>(0);
+            } else {
+                list = Store.after(rows, updated, name, max);
+            }
+            return list;
+        } finally {
+            shared.unlock();
+        }
+    }
+
+    /**
+     * Create a new talk (runtime exception if it exists already).
+     * @param repo The repository
+     * @param name The name
+     * @param xml Its XML, by the number given to it
+     * @throws IOException If fails
+     */
+    public void create(final String repo, final String name,
+        final LongFunction<String> xml) throws IOException {
+        final Lock exclusive = this.lock.writeLock();
+        exclusive.lock();
+        try {
+            if (this.names.containsKey(name)) {
+                throw new IllegalArgumentException(
+                    String.format("talk \"%s\" already exists", name)
+                );
+            }
+            final long number = this.last + 1L;
+            this.put(
+                new Store.Row(
+                    name, repo, number, 0L, true,
+                    System.currentTimeMillis(), 0L, 0
+                ),
+                xml.apply(number).getBytes(StandardCharsets.UTF_8)
+            );
+        } finally {
+            exclusive.unlock();
+        }
+    }
+
+    /**
+     * Replace the XML of the talk, if nobody replaced it already.
+     * @param row The talk, as it was read
+     * @param xml New XML
+     * @return TRUE if replaced, FALSE if it was modified by someone else
+     * @throws IOException If fails
+     */
+    public boolean replace(final Store.Row row, final String xml)
+        throws IOException {
+        final Lock exclusive = this.lock.writeLock();
+        exclusive.lock();
+        try {
+            final Store.Row current = this.names.get(row.name());
+            if (current == null) {
+                throw new NoSuchElementException(
+                    String.format("talk \"%s\" is absent", row.name())
+                );
+            }
+            final boolean same = current.version() == row.version();
+            if (same) {
+                this.put(
+                    current.next(current.active()),
+                    xml.getBytes(StandardCharsets.UTF_8)
+                );
+            }
+            return same;
+        } finally {
+            exclusive.unlock();
+        }
+    }
+
+    /**
+     * Make the talk active or passive.
+     * @param name The name
+     * @param yes TRUE if it should be active
+     * @throws IOException If fails
+     */
+    public void active(final String name, final boolean yes)
+        throws IOException {
+        final Lock exclusive = this.lock.writeLock();
+        exclusive.lock();
+        try {
+            final Store.Row current = this.row(name);
+            this.put(current.next(yes), this.xml(current));
+        } finally {
+            exclusive.unlock();
+        }
+    }
+
+    /**
+     * Delete the talk, if it exists.
+     * @param name The name
+     * @throws IOException If fails
+     */
+    public void delete(final String name) throws IOException {
+        final Lock exclusive = this.lock.writeLock();
+        exclusive.lock();
+        try {
+            if (this.names.containsKey(name)) {
+                final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                final DataOutputStream out = new DataOutputStream(baos);
+                out.writeByte(Store.DELETE);
+                out.writeUTF(name);
+                this.append(baos.toByteArray());
+                this.unindex(name);
+                this.compact();
+            }
+        } finally {
+            exclusive.unlock();
+        }
+    }
+
+    /**
+     * Save the talk and index it.
+     * @param row The talk, without the position of the XML
+     * @param xml Its XML
+     * @throws IOException If fails
+     */
+    private void put(final Store.Row row, final byte[] xml)
+        throws IOException {
+        final byte[] payload = Store.payload(row, xml);
+        final long pos = this.append(payload);
+        this.index(
+            row.at(pos + Store.HEAD + payload.length - xml.length, xml.length)
+        );
+        this.compact();
+    }
+
+    /**
+     * Append a record to the file and make sure it's on the disk.
+     * @param payload Content of the record
+     * @return Position of the record in the file
+     * @throws IOException If fails
+     */
+    private long append(final byte[] payload) throws IOException {
+        final long pos = this.end;
+        try {
+            this.end = Store.write(this.channel, pos, payload);
+            this.channel.force(false);
+        } catch (final IOException ex) {
+            this.end = pos;
+            this.channel.truncate(pos);
+            throw ex;
+        }
+        return pos;
+    }
+
+    /**
+     * Read the XML of the talk.
+     * @param row The talk
+     * @return XML
+     * @throws IOException If fails
+     */
+    private byte[] xml(final Store.Row row) throws IOException {
+        return Store.read(this.channel, row.position(), row.length());
+    }
+
+    /**
+     * Replay the log and cut off the broken tail, if any.
+     * @throws IOException If fails
+     */
+    private void recover() throws IOException {
+        final long size = this.channel.size();
+        long pos = 0L;
+        while (pos + Store.HEAD <= size) {
+            final ByteBuffer head = ByteBuffer.wrap(
+                Store.read(this.channel, pos, Store.HEAD)
+            );
+            final int length = head.getInt();
+            if (length <= 0 || pos + Store.HEAD + length > size) {
+                break;
+            }
+            final byte[] payload = Store.read(
+                this.channel, pos + Store.HEAD, length
+            );
+            final CRC32 crc = new CRC32();
+            crc.update(payload);
+            if (crc.getValue() != head.getLong()) {
+                break;
+            }
+            this.replay(pos, payload);
+            pos += Store.HEAD + length;
+        }
+        if (pos < size) {
+            Logger.warn(
+                this, "Broken tail of %d bytes cut off in %s",
+                size - pos, this.file()
+            );
+            this.channel.truncate(pos);
+            this.channel.force(true);
+        }
+        this.end = pos;
+        Logger.info(
+            this, "%d talks (%d active) in %d bytes of %s",
+            this.names.size(), this.actives.size(), pos, this.file()
+        );
+    }
+
+    /**
+     * Replay one record.
+     * @param pos Position of the record in the file
+     * @param payload Its content
+     * @throws IOException If fails
+     */
+    private void replay(final long pos, final byte[] payload)
+        throws IOException {
+        final DataInputStream in = new DataInputStream(
+            new ByteArrayInputStream(payload)
+        );
+        final byte type = in.readByte();
+        if (type == Store.PUT) {
+            final Store.Row row = new Store.Row(
+                in.readUTF(), in.readUTF(), in.readLong(), in.readLong(),
+                in.readBoolean(), in.readLong(), 0L, 0
+            );
+            final int length = in.readInt();
+            this.index(
+                row.at(pos + Store.HEAD + payload.length - length, length)
+            );
+        } else if (type == Store.DELETE) {
+            this.unindex(in.readUTF());
+        } else if (type == Store.SEQ) {
+            this.last = Math.max(this.last, in.readLong());
+        } else {
+            throw new EOFException(
+                String.format("Unknown record type %d at %d", type, pos)
+            );
+        }
+    }
+
+    /**
+     * Copy all live talks into a new file, if there is too much garbage.
+     * @throws IOException If fails
+     */
+    private void compact() throws IOException {
+        if (this.garbage > Store.MIN && this.garbage > this.end / 2L) {
+            final Path tmp = this.tmp();
+            final Collection<Store.Row> moved = new ArrayList<>(
+                this.names.size()
+            );
+            long pos;
+            try (FileChannel target = FileChannel.open(
+                tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE
+            )) {
+                final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                final DataOutputStream out = new DataOutputStream(baos);
+                out.writeByte(Store.SEQ);
+                out.writeLong(this.last);
+                pos = Store.write(target, 0L, baos.toByteArray());
+                for (final Store.Row row : this.names.values()) {
+                    final byte[] xml = this.xml(row);
+                    final byte[] payload = Store.payload(row, xml);
+                    moved.add(
+                        row.at(
+                            pos + Store.HEAD + payload.length - xml.length,
+                            xml.length
+                        )
+                    );
+                    pos = Store.write(target, pos, payload);
+                }
+                target.force(true);
+            }
+            Files.move(
+                tmp, this.file(), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING
+            );
+            this.sync();
+            this.channel.close();
+            this.channel = FileChannel.open(
+                this.file(), StandardOpenOption.READ, StandardOpenOption.WRITE
+            );
+            Logger.info(
+                this, "%s compacted from %d to %d bytes",
+                this.file(), this.end, pos
+            );
+            this.end = pos;
+            for (final Store.Row row : moved) {
+                this.index(row);
+            }
+            this.garbage = 0L;
+        }
+    }
+
+    /**
+     * Flush the directory to the disk, to make the rename of the file
+     * durable.
+     * @throws IOException If fails
+     */
+    private void sync() throws IOException {
+        try (FileChannel folder = FileChannel.open(
+            this.dir.toPath(), StandardOpenOption.READ
+        )) {
+            folder.force(true);
+        }
+    }
+
+    /**
+     * Put the talk into all indexes, replacing its previous version.
+     * @param row The talk
+     */
+    private void index(final Store.Row row) {
+        this.unindex(row.name());
+        this.names.put(row.name(), row);
+        this.numbers.put(row.number(), row);
+        if (row.active()) {
+            this.actives.add(row);
+        } else {
+            this.passives.add(row);
+        }
+        this.repos.computeIfAbsent(
+            row.repo(), key -> new TreeSet<>(Store.Row.RECENT)
+        ).add(row);
+        this.last = Math.max(this.last, row.number());
+    }
+
+    /**
+     * Remove the talk from all indexes.
+     * @param name The name of the talk
+     */
+    private void unindex(final String name) {
+        final Store.Row row = this.names.remove(name);
+        if (row != null) {
+            this.numbers.remove(row.number());
+            this.actives.remove(row);
+            this.passives.remove(row);
+            final NavigableSet<Store.Row> rows = this.repos.get(row.repo());
+            rows.remove(row);
+            if (rows.isEmpty()) {
+                this.repos.remove(row.repo());
+            }
+            this.garbage += row.length();
+        }
+    }
+
+    /**
+     * The file with the log.
+     * @return Path
+     */
+    private Path file() {
+        return new File(this.dir, "talks.log").toPath();
+    }
+
+    /**
+     * The temporary file, used for compaction.
+     * @return Path
+     */
+    private Path tmp() {
+        return new File(this.dir, "talks.log.tmp").toPath();
+    }
+
+    /**
+     * Names of the first talks.
+     * @param rows The talks
+     * @param max Maximum amount of them
+     * @return Names
+     */
+    private static List<String> names(final Iterable<Store.Row> rows,
+        final int max) {
+        final List<String> list = new ArrayList<>(0);
+        for (final Store.Row row : rows) {
+            if (list.size() >= max) {
+                break;
+            }
+            list.add(row.name());
+        }
+        return list;
+    }
+
+    /**
+     * Talks which go after the given one.
+     * @param rows The talks, the most recently updated first
+     * @param updated When the given talk was updated
+     * @param name The name of the given talk
+     * @param max Maximum amount of them
+     * @return Talks
+     */
+    private static List<Store.Row> after(final NavigableSet<Store.Row> rows,
+        final long updated, final String name, final int max) {
+        final List<Store.Row> list = new ArrayList<>(0);
+        for (final Store.Row row : rows.tailSet(
+            new Store.Row(name, "", 0L, 0L, false, updated, 0L, 0), false
+        )) {
+            if (list.size() >= max) {
+                break;
+            }
+            list.add(row);
+        }
+        return list;
+    }
+
+    /**
+     * Make the content of a record, which puts the talk.
+     * @param row The talk
+     * @param xml Its XML
+     * @return Content of the record, ending with the XML
+     * @throws IOException If fails
+     */
+    private static byte[] payload(final Store.Row row, final byte[] xml)
+        throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream(
+            xml.length + Byte.SIZE * Byte.SIZE
+        );
+        final DataOutputStream out = new DataOutputStream(baos);
+        out.writeByte(Store.PUT);
+        out.writeUTF(row.name());
+        out.writeUTF(row.repo());
+        out.writeLong(row.number());
+        out.writeLong(row.version());
+        out.writeBoolean(row.active());
+        out.writeLong(row.updated());
+        out.writeInt(xml.length);
+        out.write(xml);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Write a record to the file.
+     * @param file The file
+     * @param pos Where to write
+     * @param payload Content of the record
+     * @return Position right after the record
+     * @throws IOException If fails
+     */
+    private static long write(final FileChannel file, final long pos,
+        final byte[] payload) throws IOException {
+        final CRC32 crc = new CRC32();
+        crc.update(payload);
+        final ByteBuffer buf = ByteBuffer.allocate(
+            Store.HEAD + payload.length
+        );
+        buf.putInt(payload.length).putLong(crc.getValue()).put(payload);
+        buf.flip();
+        while (buf.hasRemaining()) {
+            file.write(buf, pos + buf.position());
+        }
+        return pos + Store.HEAD + payload.length;
+    }
+
+    /**
+     * Read bytes from the file.
+     * @param file The file
+     * @param pos Where to start
+     * @param length How many bytes to read
+     * @return Bytes
+     * @throws IOException If fails
+     */
+    private static byte[] read(final FileChannel file, final long pos,
+        final int length) throws IOException {
+        final ByteBuffer buf = ByteBuffer.allocate(length);
+        while (buf.hasRemaining()) {
+            if (file.read(buf, pos + buf.position()) < 0) {
+                throw new EOFException(
+                    String.format(
+                        "Can't read %d bytes at %d, the file is too short",
+                        length, pos
+                    )
+                );
+            }
+        }
+        return buf.array();
+    }
+
+    /**
+     * A talk in the indexes.
+     *
+     * @author Yegor Bugayenko (yegor256@gmail.com)
+     * @version $Id$
+     * @since 2.0
+     * @checkstyle ParameterNumberCheck (100 lines)
+     */
+    @SuppressWarnings("PMD.DataClass")
+    static final class Row {
+        /**
+         * The most recently updated first.
+         */
+        private static final Comparator<Store.Row> RECENT =
+            Comparator.comparingLong(Store.Row::updated).reversed()
+                .thenComparing(Store.Row::name);
+        /**
+         * The name.
+         */
+        private final transient String label;
+        /**
+         * The repository.
+         */
+        private final transient String repository;
+        /**
+         * The number.
+         */
+        private final transient long num;
+        /**
+         * Version, incremented on every modification.
+         */
+        private final transient long ver;
+        /**
+         * Is it active?
+         */
+        private final transient boolean alive;
+        /**
+         * When it was updated, in milliseconds.
+         */
+        private final transient long time;
+        /**
+         * Position of the XML in the file.
+         */
+        private final transient long pos;
+        /**
+         * Length of the XML, in bytes.
+         */
+        private final transient int len;
+        /**
+         * Ctor.
+         * @param name The name
+         * @param repo The repository
+         * @param number The number
+         * @param version The version
+         * @param active Is it active
+         * @param updated When it was updated
+         * @param position Position of XML in the file
+         * @param length Length of XML
+         */
+        Row(final String name, final String repo, final long number,
+            final long version, final boolean active, final long updated,
+            final long position, final int length) {
+            this.label = name;
+            this.repository = repo;
+            this.num = number;
+            this.ver = version;
+            this.alive = active;
+            this.time = updated;
+            this.pos = position;
+            this.len = length;
+        }
+        /**
+         * The name.
+         * @return Name
+         */
+        public String name() {
+            return this.label;
+        }
+        /**
+         * The repository.
+         * @return Repository
+         */
+        public String repo() {
+            return this.repository;
+        }
+        /**
+         * The number.
+         * @return Number
+         */
+        public long number() {
+            return this.num;
+        }
+        /**
+         * The version.
+         * @return Version
+         */
+        public long version() {
+            return this.ver;
+        }
+        /**
+         * Is it active?
+         * @return TRUE if active
+         */
+        public boolean active() {
+            return this.alive;
+        }
+        /**
+         * When it was updated.
+         * @return Milliseconds
+         */
+        public long updated() {
+            return this.time;
+        }
+        /**
+         * Position of the XML.
+         * @return Position in the file
+         */
+        public long position() {
+            return this.pos;
+        }
+        /**
+         * Length of the XML.
+         * @return Bytes
+         */
+        public int length() {
+            return this.len;
+        }
+        /**
+         * The same talk, stored in another place.
+         * @param position Position of XML in the file
+         * @param length Length of XML
+         * @return Talk
+         */
+        public Store.Row at(final long position, final int length) {
+            return new Store.Row(
+                this.label, this.repository, this.num, this.ver,
+                this.alive, this.time, position, length
+            );
+        }
+        /**
+         * The next version of the talk, updated now, not stored yet.
+         * @param active Is it active
+         * @return Talk
+         */
+        public Store.Row next(final boolean active) {
+            return new Store.Row(
+                this.label, this.repository, this.num, this.ver + 1L,
+                active, Math.max(System.currentTimeMillis(), this.time + 1L),
+                0L, 0
+            );
+        }
+    }
+
+}
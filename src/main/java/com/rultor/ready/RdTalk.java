@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.ready;
+
+import com.jcabi.xml.XML;
+import com.rultor.spi.Talk;
+import java.io.IOException;
+import java.util.Date;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.xembly.Directive;
+
+/**
+ * Talk, which gets into the ready queue when it changes.
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString(of = "origin")
+@EqualsAndHashCode(of = "origin")
+public final class RdTalk implements Talk {
+
+    /**
+     * Origin talk.
+     */
+    private final transient Talk origin;
+
+    /**
+     * Queue to notify.
+     */
+    private final transient Ready ready;
+
+    /**
+     * Ctor.
+     * @param talk Talk
+     * @param queue Queue to notify
+     */
+    RdTalk(final Talk talk, final Ready queue) {
+        this.origin = talk;
+        this.ready = queue;
+    }
+
+    @Override
+    public Long number() throws IOException {
+        return this.origin.number();
+    }
+
+    @Override
+    public String name() throws IOException {
+        return this.origin.name();
+    }
+
+    @Override
+    public Date updated() throws IOException {
+        return this.origin.updated();
+    }
+
+    @Override
+    public XML read() throws IOException {
+        return this.origin.read();
+    }
+
+    @Override
+    public Map<String, String> project(final String... paths)
+        throws IOException {
+        return this.origin.project(paths);
+    }
+
+    @Override
+    public XML full() throws IOException {
+        return this.origin.full();
+    }
+
+    @Override
+    public void modify(final Iterable<Directive> dirs) throws IOException {
+        this.origin.modify(dirs);
+        if (dirs.iterator().hasNext()) {
+            this.ready.push(this.origin.name());
+        }
+    }
+
+    @Override
+    public void active(final boolean yes) throws IOException {
+        this.origin.active(yes);
+        if (yes) {
+            this.ready.push(this.origin.name());
+        }
+    }
+
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.ready;
+
+import com.rultor.spi.Page;
+import com.rultor.spi.Shard;
+import com.rultor.spi.Talk;
+import com.rultor.spi.Talks;
+import java.io.IOException;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.cactoos.iterable.Mapped;
+
+/**
+ * Talks, which get into the ready queue when they change.
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString(of = "origin")
+@EqualsAndHashCode(of = "origin")
+@SuppressWarnings("PMD.TooManyMethods")
+public final class RdTalks implements Talks {
+
+    /**
+     * Original talks.
+     */
+    private final transient Talks origin;
+
+    /**
+     * Queue to notify.
+     */
+    private final transient Ready ready;
+
+    /**
+     * Public ctor.
+     * @param talks Talks
+     * @param queue Queue to notify
+     */
+    public RdTalks(final Talks talks, final Ready queue) {
+        this.origin = talks;
+        this.ready = queue;
+    }
+
+    @Override
+    public boolean exists(final long number) {
+        return this.origin.exists(number);
+    }
+
+    @Override
+    public Talk get(final long number) {
+        return new RdTalk(this.origin.get(number), this.ready);
+    }
+
+    @Override
+    public boolean exists(final String name) {
+        return this.origin.exists(name);
+    }
+
+    @Override
+    public Talk get(final String name) {
+        return new RdTalk(this.origin.get(name), this.ready);
+    }
+
+    @Override
+    public void delete(final String name) {
+        this.origin.delete(name);
+    }
+
+    @Override
+    public void create(final String repo, final String name)
+        throws IOException {
+        this.origin.create(repo, name);
+        this.ready.push(name);
+    }
+
+    @Override
+    public Iterable<Talk> active() {
+        return new Mapped<>(
+            input -> new RdTalk(input, this.ready),
+            this.origin.active()
+        );
+    }
+
+    @Override
+    public Iterable<Talk> active(final Shard shard) {
+        return new Mapped<>(
+            input -> new RdTalk(input, this.ready),
+            this.origin.active(shard)
+        );
+    }
+
+    @Override
+    public Iterable<Talk> recent() {
+        return new Mapped<>(
+            input -> new RdTalk(input, this.ready),
+            this.origin.recent()
+        );
+    }
+
+    @Override
+    public Page recent(final String cursor, final int size)
+        throws IOException {
+        return this.ready(this.origin.recent(cursor, size));
+    }
+
+    @Override
+    public Page siblings(final String repo, final String cursor,
+        final int size) throws IOException {
+        return this.ready(this.origin.siblings(repo, cursor, size));
+    }
+
+    /**
+     * Wrap talks of the page.
+     * @param page The page
+     * @return Page with talks, which notify the queue
+     */
+    private Page ready(final Page page) {
+        return new Page(
+            new Mapped<>(input -> new RdTalk(input, this.ready), page),
+            page.next()
+        );
+    }
+}
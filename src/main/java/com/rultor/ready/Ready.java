@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.ready;
+
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import lombok.ToString;
+
+/**
+ * Queue of talks, which have to be processed as soon as possible.
+ *
+ * <p>A talk gets here when it's modified or activated, without waiting
+ * for the next tick of the routine. Each talk is in the queue only once,
+ * no matter how many times it was pushed. While the talk is being
+ * processed (between {@link #acquire(String)} and
+ * {@link #release(String)}), it is not queued again, since the
+ * changes made to it by its own agents don't need another round.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString(of = "queue")
+public final class Ready {
+
+    /**
+     * Names of talks waiting for processing, in order.
+     */
+    private final transient BlockingQueue<String> queue =
+        new LinkedBlockingQueue<>();
+
+    /**
+     * Names of talks waiting for processing.
+     */
+    private final transient Set<String> pending =
+        ConcurrentHashMap.newKeySet();
+
+    /**
+     * Names of talks being processed now.
+     */
+    private final transient Set<String> busy =
+        ConcurrentHashMap.newKeySet();
+
+    /**
+     * Push a talk to the queue.
+     * @param name Name of the talk
+     */
+    public void push(final String name) {
+        if (!this.busy.contains(name) && this.pending.add(name)) {
+            this.queue.add(name);
+        }
+    }
+
+    /**
+     * Take the next talk, waiting for it if necessary.
+     * @return Name of the talk
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public String take() throws InterruptedException {
+        final String name = this.queue.take();
+        this.pending.remove(name);
+        return name;
+    }
+
+    /**
+     * Mark the talk as being processed.
+     * @param name Name of the talk
+     * @return TRUE if it was not being processed already
+     */
+    public boolean acquire(final String name) {
+        return this.busy.add(name);
+    }
+
+    /**
+     * Mark the talk as not being processed anymore.
+     * @param name Name of the talk
+     */
+    public void release(final String name) {
+        this.busy.remove(name);
+    }
+
+}
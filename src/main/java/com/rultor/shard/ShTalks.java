@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.shard;
+
+import com.rultor.spi.Page;
+import com.rultor.spi.Shard;
+import com.rultor.spi.Talk;
+import com.rultor.spi.Talks;
+import java.io.IOException;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.cactoos.iterable.Filtered;
+
+/**
+ * Talks, where only talks of the shard are active.
+ *
+ * <p>Talks of other shards are skipped by the original talks,
+ * before they are loaded.</p>
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString(of = "origin")
+@EqualsAndHashCode(of = { "origin", "shard" })
+@SuppressWarnings("PMD.TooManyMethods")
+public final class ShTalks implements Talks {
+
+    /**
+     * Original talks.
+     */
+    private final transient Talks origin;
+
+    /**
+     * Shard of this node.
+     */
+    private final transient Shard shard;
+
+    /**
+     * Public ctor.
+     * @param talks Talks
+     * @param shrd Shard of this node
+     */
+    public ShTalks(final Talks talks, final Shard shrd) {
+        this.origin = talks;
+        this.shard = shrd;
+    }
+
+    @Override
+    public boolean exists(final long number) {
+        return this.origin.exists(number);
+    }
+
+    @Override
+    public Talk get(final long number) {
+        return this.origin.get(number);
+    }
+
+    @Override
+    public boolean exists(final String name) {
+        return this.origin.exists(name);
+    }
+
+    @Override
+    public Talk get(final String name) {
+        return this.origin.get(name);
+    }
+
+    @Override
+    public void delete(final String name) {
+        this.origin.delete(name);
+    }
+
+    @Override
+    public void create(final String repo, final String name)
+        throws IOException {
+        this.origin.create(repo, name);
+    }
+
+    @Override
+    public Iterable<Talk> active() {
+        return this.origin.active(this.shard);
+    }
+
+    @Override
+    public Iterable<Talk> active(final Shard shrd) {
+        return new Filtered<>(
+            talk -> this.shard.mine(talk.name()),
+            this.origin.active(shrd)
+        );
+    }
+
+    @Override
+    public Iterable<Talk> recent() {
+        return this.origin.recent();
+    }
+
+    @Override
+    public Page recent(final String cursor, final int size)
+        throws IOException {
+        return this.origin.recent(cursor, size);
+    }
+
+    @Override
+    public Page siblings(final String repo, final String cursor,
+        final int size) throws IOException {
+        return this.origin.siblings(repo, cursor, size);
+    }
+
+}
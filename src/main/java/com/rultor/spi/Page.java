@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.spi;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.cactoos.Func;
+import org.cactoos.list.SolidList;
+
+/**
+ * Page of talks.
+ *
+ * <p>The cursor of the next page is opaque, it can only be given back
+ * to the same {@link Talks} in order to get the next page. The page
+ * is the last one when its cursor is empty.</p>
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString
+@EqualsAndHashCode
+public final class Page implements Iterable<Talk> {
+
+    /**
+     * Talks in the page.
+     */
+    private final transient Iterable<Talk> talks;
+
+    /**
+     * Cursor of the next page or empty if this page is the last one.
+     */
+    private final transient String cursor;
+
+    /**
+     * Ctor.
+     * @param list Talks in the page
+     * @param next Cursor of the next page, empty if there are no more
+     */
+    public Page(final Iterable<Talk> list, final String next) {
+        this.talks = new SolidList<>(list);
+        this.cursor = next;
+    }
+
+    @Override
+    public Iterator<Talk> iterator() {
+        return this.talks.iterator();
+    }
+
+    /**
+     * Cursor of the next page.
+     * @return Cursor, empty if this page is the last one
+     */
+    public String next() {
+        return this.cursor;
+    }
+
+    /**
+     * Is it the last page?
+     * @return TRUE if there are no more pages
+     */
+    public boolean last() {
+        return this.cursor.isEmpty();
+    }
+
+    /**
+     * All talks of all pages, loaded page by page, while being iterated.
+     *
+     * <p>The next page is requested only when the talks of the current
+     * one are over, for example:</p>
+     *
+     * <pre> new Page.All(cursor -&gt; talks.recent(cursor, 20))</pre>
+     */
+    @ToString
+    @EqualsAndHashCode
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    public static final class All implements Iterable<Talk> {
+        /**
+         * Pages by their cursors.
+         */
+        private final transient Func<String, Page> pages;
+        /**
+         * Ctor.
+         * @param func Pages by their cursors, empty cursor for the first one
+         */
+        public All(final Func<String, Page> func) {
+            this.pages = func;
+        }
+        @Override
+        public Iterator<Talk> iterator() {
+            return new Iterator<Talk>() {
+                private Page page = new Page(
+                    Collections.emptyList(), ""
+                );
+                private Iterator<Talk> current = Collections.emptyIterator();
+                private boolean started;
+                @Override
+                public boolean hasNext() {
+                    while (!this.current.hasNext()
+                        && (!this.started || !this.page.last())) {
+                        try {
+                            this.page = All.this.pages.apply(this.page.next());
+                            // @checkstyle IllegalCatchCheck (1 line)
+                        } catch (final Exception ex) {
+                            throw new IllegalStateException(ex);
+                        }
+                        this.started = true;
+                        this.current = this.page.iterator();
+                    }
+                    return this.current.hasNext();
+                }
+                @Override
+                public Talk next() {
+                    if (!this.hasNext()) {
+                        throw new NoSuchElementException("No more talks");
+                    }
+                    return this.current.next();
+                }
+            };
+        }
+    }
+
+}
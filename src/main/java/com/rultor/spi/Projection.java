@@ -0,0 +1,229 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.spi;
+
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.cactoos.list.SolidList;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Values of a few simple paths in the XML of a talk.
+ *
+ * <p>Only absolute paths of elements and attributes, without predicates
+ * and wildcards, are supported, like "/talk/@later" or
+ * "/talk/wire/href". The value of the path is the text of the first
+ * element or attribute found; paths not found are absent in the
+ * result. The XML is read with StAX, without building the DOM, and
+ * reading stops as soon as all paths are found.</p>
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@ToString
+@EqualsAndHashCode
+public final class Projection {
+
+    /**
+     * StAX factory.
+     */
+    private static final XMLInputFactory FACTORY =
+        XMLInputFactory.newInstance();
+
+    /**
+     * Paths.
+     */
+    private final transient Iterable<String> paths;
+
+    /**
+     * Ctor.
+     * @param list Paths
+     */
+    public Projection(final String... list) {
+        this(new SolidList<>(list));
+    }
+
+    /**
+     * Ctor.
+     * @param list Paths
+     */
+    public Projection(final Iterable<String> list) {
+        this.paths = new SolidList<>(list);
+    }
+
+    /**
+     * Values of paths in the XML text.
+     * @param xml The XML
+     * @return Values by paths
+     */
+    public Map<String, String> apply(final String xml) {
+        final Set<String> wanted = new HashSet<>(0);
+        for (final String path : this.paths) {
+            wanted.add(path);
+        }
+        final Map<String, String> values = new HashMap<>(wanted.size());
+        try {
+            final XMLStreamReader reader = Projection.FACTORY
+                .createXMLStreamReader(new StringReader(xml));
+            try {
+                final Deque<String> stack = new ArrayDeque<>(0);
+                final Map<String, StringBuilder> texts = new HashMap<>(0);
+                while (reader.hasNext() && values.size() < wanted.size()) {
+                    final int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        final String path = String.format(
+                            "%s/%s", Projection.top(stack),
+                            reader.getLocalName()
+                        );
+                        stack.push(path);
+                        for (int idx = 0; idx < reader.getAttributeCount();
+                            ++idx) {
+                            final String attr = String.format(
+                                "%s/@%s", path,
+                                reader.getAttributeLocalName(idx)
+                            );
+                            if (wanted.contains(attr)
+                                && !values.containsKey(attr)) {
+                                values.put(attr, reader.getAttributeValue(idx));
+                            }
+                        }
+                        if (wanted.contains(path) && !values.containsKey(path)
+                            && !texts.containsKey(path)) {
+                            texts.put(path, new StringBuilder(0));
+                        }
+                    } else if (event == XMLStreamConstants.CHARACTERS) {
+                        for (final StringBuilder text : texts.values()) {
+                            text.append(reader.getText());
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        final String path = stack.pop();
+                        if (texts.containsKey(path)) {
+                            values.put(path, texts.remove(path).toString());
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final XMLStreamException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+        return values;
+    }
+
+    /**
+     * Values of paths in the DOM.
+     * @param node The document
+     * @return Values by paths
+     */
+    public Map<String, String> apply(final Node node) {
+        final Map<String, String> values = new HashMap<>(0);
+        final Element root;
+        if (node instanceof Document) {
+            root = Document.class.cast(node).getDocumentElement();
+        } else {
+            root = Element.class.cast(node);
+        }
+        for (final String path : this.paths) {
+            final String[] steps = path.substring(1).split("/");
+            Element element = null;
+            if (root.getTagName().equals(steps[0])) {
+                element = root;
+            }
+            String value = null;
+            for (int idx = 1; idx < steps.length && element != null; ++idx) {
+                if (steps[idx].startsWith("@")) {
+                    if (element.hasAttribute(steps[idx].substring(1))) {
+                        value = element.getAttribute(steps[idx].substring(1));
+                    }
+                    element = null;
+                } else {
+                    element = Projection.child(element, steps[idx]);
+                }
+            }
+            if (element != null) {
+                value = element.getTextContent();
+            }
+            if (value != null) {
+                values.put(path, value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Path on the top of the stack.
+     * @param stack Stack of paths
+     * @return Path or empty
+     */
+    private static String top(final Deque<String> stack) {
+        final String top;
+        if (stack.isEmpty()) {
+            top = "";
+        } else {
+            top = stack.peek();
+        }
+        return top;
+    }
+
+    /**
+     * First child element with the name.
+     * @param parent Parent element
+     * @param name Name of the child
+     * @return Child or NULL
+     */
+    private static Element child(final Element parent, final String name) {
+        Element found = null;
+        for (Node kid = parent.getFirstChild(); kid != null;
+            kid = kid.getNextSibling()) {
+            if (kid.getNodeType() == Node.ELEMENT_NODE
+                && name.equals(kid.getNodeName())) {
+                found = Element.class.cast(kid);
+                break;
+            }
+        }
+        return found;
+    }
+
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.spi;
+
+import com.jcabi.aspects.Immutable;
+import java.io.IOException;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Shard of talks, which this node is responsible for, when a few
+ * nodes work with the same talks together.
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public interface Shard {
+
+    /**
+     * Tell the others this node is alive and learn who else is.
+     * @throws IOException If fails
+     */
+    void beat() throws IOException;
+
+    /**
+     * Is this talk processed by this node?
+     * @param talk Name of the talk
+     * @return TRUE if it's ours
+     * @throws IOException If fails
+     */
+    boolean mine(String talk) throws IOException;
+
+    /**
+     * Is this node the one that works with all talks together,
+     * starting new talks?
+     * @return TRUE if it's the leader
+     * @throws IOException If fails
+     */
+    boolean leader() throws IOException;
+
+    /**
+     * All talks, when the node works alone.
+     */
+    @Immutable
+    @ToString
+    @EqualsAndHashCode
+    final class Whole implements Shard {
+        @Override
+        public void beat() {
+            // nothing to do
+        }
+        @Override
+        public boolean mine(final String talk) {
+            return true;
+        }
+        @Override
+        public boolean leader() {
+            return true;
+        }
+    }
+
+}
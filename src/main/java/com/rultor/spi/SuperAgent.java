@@ -32,6 +32,7 @@ package com.rultor.spi;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.immutable.Array;
 import java.io.IOException;
+import java.util.Arrays;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
@@ -78,4 +79,44 @@ public interface SuperAgent {
         }
     }
 
+    /**
+     * Agents, which see all active talks in one scan.
+     *
+     * <p>Each active talk is fetched once and given to all agents,
+     * one after another.</p>
+     *
+     * @since 2.0
+     */
+    @Immutable
+    @ToString
+    @EqualsAndHashCode(of = "children")
+    final class Scan implements SuperAgent {
+        /**
+         * Agents to run.
+         */
+        private final transient Array<Agent> children;
+        /**
+         * Ctor.
+         * @param list List of them
+         */
+        public Scan(final Agent... list) {
+            this(Arrays.asList(list));
+        }
+        /**
+         * Ctor.
+         * @param list List of them
+         */
+        public Scan(final Iterable<Agent> list) {
+            this.children = new Array<>(list);
+        }
+        @Override
+        public void execute(final Talks talks) throws IOException {
+            for (final Talk talk : talks.active()) {
+                for (final Agent agent : this.children) {
+                    agent.execute(talk);
+                }
+            }
+        }
+    }
+
 }
@@ -42,6 +42,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.Map;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.CharEncoding;
 import org.apache.commons.lang3.StringUtils;
@@ -74,7 +75,8 @@ public interface Talk {
     );
 
     /**
-     * Upgrade XSL.
+     * Upgrade XSL, don't forget to change {@link #REVISION} when
+     * adding a new one.
      */
     XSL UPGRADE = new XSLChain(
         Arrays.asList(
@@ -91,6 +93,13 @@ public interface Talk {
         )
     );
 
+    /**
+     * Revision of the schema, which is the number of the last XSL
+     * in {@link #UPGRADE}; documents of this revision don't need
+     * to be upgraded.
+     */
+    long REVISION = 2L;
+
     /**
      * Its unique number.
      * @return Its number
@@ -115,11 +124,33 @@ public interface Talk {
 
     /**
      * Read its content.
+     *
+     * <p>The archive in the content may have only the most recent
+     * logs, use {@link #full()} to get all of them.</p>
+     *
      * @return Content
      * @throws IOException If fails
      */
     XML read() throws IOException;
 
+    /**
+     * Read values of a few simple paths in its content, preferably
+     * without reading and parsing the entire document.
+     * @param paths Paths, see {@link Projection}
+     * @return Values by paths, absent if not found
+     * @throws IOException If fails
+     * @since 2.0
+     */
+    Map<String, String> project(String... paths) throws IOException;
+
+    /**
+     * Read its content, with the entire archive.
+     * @return Content
+     * @throws IOException If fails
+     * @since 2.0
+     */
+    XML full() throws IOException;
+
     /**
      * Modify its content.
      * @param dirs Directives
@@ -205,6 +236,15 @@ public interface Talk {
             );
         }
         @Override
+        public Map<String, String> project(final String... paths)
+            throws IOException {
+            return new Projection(paths).apply(this.read().node());
+        }
+        @Override
+        public XML full() throws IOException {
+            return this.read();
+        }
+        @Override
         public void modify(final Iterable<Directive> dirs) throws IOException {
             if (dirs.iterator().hasNext()) {
                 final Node node = this.read().node();
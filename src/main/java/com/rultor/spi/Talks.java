@@ -36,8 +36,15 @@ import com.jcabi.xml.XMLDocument;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.util.Collection;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.CharEncoding;
 import org.cactoos.iterable.Filtered;
@@ -108,6 +115,16 @@ public interface Talks {
      */
     Iterable<Talk> active();
 
+    /**
+     * Get only active talks of the shard.
+     *
+     * <p>Talks of other shards are skipped before they are loaded.</p>
+     *
+     * @param shard The shard
+     * @return Talks
+     */
+    Iterable<Talk> active(Shard shard);
+
     /**
      * Get recent talks.
      * @return Talks
@@ -115,22 +132,59 @@ public interface Talks {
     Iterable<Talk> recent();
 
     /**
-     * Get siblings, since this date (all talks will be older that this date).
+     * Get a page of recent talks, the most recently updated first.
+     * @param cursor Cursor from {@link Page#next()} or empty for
+     *  the first page
+     * @param size Maximum amount of talks in the page
+     * @return Page
+     * @throws IOException If fails
+     * @throws IllegalArgumentException If the cursor is broken
+     * @since 2.0
+     */
+    Page recent(String cursor, int size) throws IOException;
+
+    /**
+     * Get a page of siblings, the most recently updated first.
      * @param repo Repo name
-     * @param since Date
-     * @return Talks
+     * @param cursor Cursor from {@link Page#next()} or empty for
+     *  the first page
+     * @param size Maximum amount of talks in the page
+     * @return Page
+     * @throws IOException If fails
+     * @throws IllegalArgumentException If the cursor is broken
+     * @since 2.0
      */
-    Iterable<Talk> siblings(String repo, Date since);
+    Page siblings(String repo, String cursor, int size) throws IOException;
 
     /**
      * In directory.
+     *
+     * <p>Talks are indexed in memory by names, numbers and repositories,
+     * when created, that's why files are not read in order to find
+     * a talk. Talks of a repository are sorted by the time of their
+     * files modification, when requested.</p>
      */
-    @Immutable
     final class InDir implements Talks {
         /**
          * Dir.
          */
         private final transient String path;
+        /**
+         * Numbers of talks, by names.
+         */
+        private final transient ConcurrentMap<String, Long> names;
+        /**
+         * Names of talks, by numbers.
+         */
+        private final transient ConcurrentMap<Long, String> numbers;
+        /**
+         * Names of talks, by repositories.
+         */
+        private final transient ConcurrentMap<String, Set<String>> repos;
+        /**
+         * The largest number given to a talk.
+         */
+        private final transient AtomicLong last;
         /**
          * Ctor.
          * @throws IOException ex
@@ -139,51 +193,54 @@ public interface Talks {
             this.path = Files.createTempDirectory("")
                 .toAbsolutePath()
                 .toString();
+            this.names = new ConcurrentHashMap<>(0);
+            this.numbers = new ConcurrentHashMap<>(0);
+            this.repos = new ConcurrentHashMap<>(0);
+            this.last = new AtomicLong();
         }
         @Override
         public boolean exists(final long number) {
-            return this.get(number) != null;
+            return this.numbers.containsKey(number);
         }
         @Override
         public Talk get(final long number) {
-            return new Filtered<>(
-                talk -> {
-                    try {
-                        return talk.read().xpath("/talk/@number").get(0)
-                            .equals(Long.toString(number));
-                    } catch (final IOException ex) {
-                        throw new IllegalStateException(ex);
-                    }
-                },
-                this.active()
-            ).iterator().next();
+            final String name = this.numbers.get(number);
+            if (name == null) {
+                throw new NoSuchElementException(
+                    String.format("talk #%d is absent", number)
+                );
+            }
+            return this.talk(name);
         }
         @Override
         public boolean exists(final String name) {
-            return this.get(name) != null;
+            return this.names.containsKey(name);
         }
         @Override
         public Talk get(final String name) {
-            return new Filtered<>(
-                talk -> {
-                    try {
-                        return talk.read().xpath("/talk/@name").get(0)
-                            .equals(name);
-                    } catch (final IOException ex) {
-                        throw new IllegalStateException(ex);
-                    }
-                },
-                this.active()
-            ).iterator().next();
+            if (!this.names.containsKey(name)) {
+                throw new NoSuchElementException(
+                    String.format("talk \"%s\" is absent", name)
+                );
+            }
+            return this.talk(name);
         }
         @Override
         public void delete(final String name) {
-            FileUtils.deleteQuietly(new File(new File(this.path), name));
+            FileUtils.deleteQuietly(this.file(name));
+            final Long number = this.names.remove(name);
+            if (number != null) {
+                this.numbers.remove(number);
+            }
+            for (final Set<String> talks : this.repos.values()) {
+                talks.remove(name);
+            }
         }
         @Override
         public void create(final String repo, final String name)
             throws IOException {
-            final File file = new File(new File(this.path), name);
+            final File file = this.file(name);
+            final long number = this.last.incrementAndGet();
             FileUtils.write(
                 file,
                 new StrictXML(
@@ -191,8 +248,8 @@ public interface Talks {
                         new JoinedText(
                             " ",
                             String.format(
-                                "<talk name='%s' number='1' later='false'>",
-                                name
+                                "<talk name='%s' number='%d' later='false'>",
+                                name, number
                             ),
                             "<wire>",
                             String.format(
@@ -206,31 +263,93 @@ public interface Talks {
                 ).toString(),
                 CharEncoding.UTF_8
             );
+            final Long before = this.names.put(name, number);
+            if (before != null) {
+                this.numbers.remove(before);
+            }
+            this.numbers.put(number, name);
+            this.repos.computeIfAbsent(
+                repo, key -> ConcurrentHashMap.newKeySet()
+            ).add(name);
             Logger.info(this, "talk '%s' created in %s", name, file);
         }
         @Override
         public Iterable<Talk> active() {
-            final Collection<File> files = FileUtils.listFiles(
-                new File(this.path), null, false
-            );
-            final SolidList<File> list = new SolidList<>(
-                new Sorted<>(
-                    files
-                )
-            );
-            Logger.info(this, "%d files in %s", files.size(), this.path);
-            return new Mapped<>(
-                file -> new Talk.InFile(file),
-                list
+            return this.active(new Shard.Whole());
+        }
+        @Override
+        public Iterable<Talk> active(final Shard shard) {
+            final SolidList<String> list = new SolidList<>(
+                new Filtered<>(shard::mine, new Sorted<>(this.names.keySet()))
             );
+            Logger.info(this, "%d talks in %s", list.size(), this.path);
+            return new Mapped<>(this::talk, list);
         }
         @Override
         public Iterable<Talk> recent() {
             return this.active();
         }
         @Override
-        public Iterable<Talk> siblings(final String repo, final Date since) {
-            return this.active();
+        public Page recent(final String cursor, final int size) {
+            return InDir.page(this.recent(), cursor, size);
+        }
+        @Override
+        public Page siblings(final String repo, final String cursor,
+            final int size) {
+            final List<File> files = new ArrayList<>(0);
+            for (final String name : this.repos.getOrDefault(
+                repo, Collections.emptySet()
+            )) {
+                files.add(this.file(name));
+            }
+            files.sort(
+                Comparator.comparingLong(File::lastModified).reversed()
+            );
+            return InDir.page(
+                new Mapped<>(Talk.InFile::new, files), cursor, size
+            );
+        }
+        /**
+         * Talk by name.
+         * @param name The name
+         * @return Talk
+         */
+        private Talk talk(final String name) {
+            return new Talk.InFile(this.file(name));
+        }
+        /**
+         * File of the talk.
+         * @param name The name
+         * @return File
+         */
+        private File file(final String name) {
+            return new File(new File(this.path), name);
+        }
+        /**
+         * Page of talks, where the cursor is the position in the list.
+         * @param talks All talks
+         * @param cursor Position of the page, empty for the first one
+         * @param size Maximum amount of talks in the page
+         * @return Page
+         */
+        private static Page page(final Iterable<Talk> talks,
+            final String cursor, final int size) {
+            final List<Talk> list = new SolidList<>(talks);
+            int start = 0;
+            if (!cursor.isEmpty()) {
+                start = Math.min(Integer.parseInt(cursor), list.size());
+            }
+            if (start < 0) {
+                throw new IllegalArgumentException(
+                    String.format("broken cursor \"%s\"", cursor)
+                );
+            }
+            final int end = Math.min(start + size, list.size());
+            String next = "";
+            if (end < list.size()) {
+                next = Integer.toString(end);
+            }
+            return new Page(list.subList(start, end), next);
         }
     }
 }
@@ -126,6 +126,13 @@ public final class TkApp extends TkWrap {
             new FkRegex("/status", new TkStatus(pulse)),
             new FkRegex("/s/.*", new TkRedirect()),
             new FkRegex("/sitemap", new TkSitemap(talks)),
+            new FkRegex(
+                "/hook/github",
+                new TkHook(
+                    talks, Manifests.read("Rultor-GithubHookSecret"),
+                    Manifests.read("Rultor-GithubLogin")
+                )
+            ),
             new FkRegex(
                 "/xsl/.*",
                 new TkWithType(new TkClasspath(), "text/xsl")
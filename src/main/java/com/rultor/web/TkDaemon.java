@@ -138,7 +138,7 @@ final class TkDaemon implements TkRegex {
                                 )
                             )
                     ),
-                    TkDaemon.escape(new Tail(talk.read(), hash).read()),
+                    TkDaemon.escape(new Tail(talk.full(), hash).read()),
                     this.getClass().getResourceAsStream("daemon/tail.html")
                 )
             )
@@ -30,7 +30,6 @@
 package com.rultor.web;
 
 import com.jcabi.aspects.Tv;
-import com.jcabi.xml.XML;
 import com.rultor.Toggles;
 import com.rultor.spi.Talk;
 import com.rultor.spi.Talks;
@@ -55,6 +54,11 @@ import org.xembly.Directives;
  */
 final class TkHome implements Take {
 
+    /**
+     * Path of the link to the issue.
+     */
+    private static final String HREF = "/talk/wire/href";
+
     /**
      * Talks.
      */
@@ -108,12 +112,9 @@ final class TkHome implements Take {
         for (final Talk talk : new Limited<>(Tv.FIVE, this.talks.recent())) {
             dirs.add("talk").set(talk.name())
                 .attr("timeago", pretty.format(talk.updated()));
-            final XML xml = talk.read();
-            if (!xml.nodes("/talk/wire/href").isEmpty()) {
-                dirs.attr(
-                    "href",
-                    talk.read().xpath("/talk/wire/href/text()").get(0)
-                );
+            final String href = talk.project(TkHome.HREF).get(TkHome.HREF);
+            if (href != null) {
+                dirs.attr("href", href);
             }
             dirs.up();
         }
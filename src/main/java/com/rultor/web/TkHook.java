@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.web;
+
+import com.jcabi.github.Coordinates;
+import com.rultor.agents.github.Mention;
+import com.rultor.spi.Talks;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.regex.Pattern;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.IOUtils;
+import org.takes.Request;
+import org.takes.Response;
+import org.takes.Take;
+import org.takes.rq.RqHeaders;
+import org.takes.rs.RsText;
+import org.takes.rs.RsWithStatus;
+
+/**
+ * Github webhook, which activates talks when Rultor is mentioned
+ * in a new comment.
+ *
+ * <p>Only "issue_comment" and "pull_request_review_comment" events
+ * are accepted, signed by the secret of the hook in the
+ * "X-Hub-Signature-256" header. The comment has to mention the login
+ * as a whole word, "@rultor" is not found in "@rultorbot". The talk
+ * gets the same wire as
+ * from {@link com.rultor.agents.github.StartsTalks}, which
+ * is still polling notifications, in case a hook is lost.</p>
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+final class TkHook implements Take {
+
+    /**
+     * HMAC algorithm.
+     */
+    private static final String HMAC = "HmacSHA256";
+
+    /**
+     * Talks.
+     */
+    private final transient Talks talks;
+
+    /**
+     * Secret of the hook.
+     */
+    private final transient String secret;
+
+    /**
+     * Github login of Rultor.
+     */
+    private final transient String login;
+
+    /**
+     * Mention of the login in a comment.
+     */
+    private final transient Pattern mention;
+
+    /**
+     * Ctor.
+     * @param tks Talks
+     * @param scrt Secret of the hook
+     * @param user Github login of Rultor
+     */
+    TkHook(final Talks tks, final String scrt, final String user) {
+        this.talks = tks;
+        this.secret = scrt;
+        this.login = user;
+        this.mention = Pattern.compile(
+            String.format(
+                "(?<![A-Za-z0-9-])@%s(?![A-Za-z0-9-])", Pattern.quote(user)
+            ),
+            Pattern.CASE_INSENSITIVE
+        );
+    }
+
+    @Override
+    public Response act(final Request req) throws IOException {
+        final Response response;
+        if (TkHook.absent(this.secret) || TkHook.absent(this.login)) {
+            response = new RsWithStatus(
+                new RsText("the hook is not configured"),
+                HttpURLConnection.HTTP_NOT_FOUND
+            );
+        } else {
+            final byte[] body = IOUtils.toByteArray(req.body());
+            final RqHeaders.Smart headers = new RqHeaders.Smart(
+                new RqHeaders.Base(req)
+            );
+            if (this.signed(body, headers.single("X-Hub-Signature-256", ""))) {
+                response = new RsText(
+                    this.accept(
+                        headers.single("X-GitHub-Event", ""),
+                        TkHook.json(body)
+                    )
+                );
+            } else {
+                response = new RsWithStatus(
+                    new RsText("invalid signature"),
+                    HttpURLConnection.HTTP_FORBIDDEN
+                );
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Accept the event.
+     * @param event Type of the event
+     * @param json Payload
+     * @return What was done
+     * @throws IOException If fails
+     */
+    private String accept(final String event, final JsonObject json)
+        throws IOException {
+        final String issue;
+        if ("issue_comment".equals(event)) {
+            issue = "issue";
+        } else if ("pull_request_review_comment".equals(event)) {
+            issue = "pull_request";
+        } else {
+            issue = "";
+        }
+        final String done;
+        if (issue.isEmpty() || !"created".equals(json.getString("action", ""))
+            || !this.mention.matcher(
+                json.getJsonObject("comment").getString("body", "")
+            ).find()) {
+            done = String.format("event \"%s\" ignored", event);
+        } else {
+            final JsonObject subject = json.getJsonObject(issue);
+            done = new Mention(
+                new Coordinates.Simple(
+                    json.getJsonObject("repository").getString("full_name")
+                ),
+                subject.getInt("number"),
+                subject.getString("html_url")
+            ).activate(this.talks);
+        }
+        return done;
+    }
+
+    /**
+     * Is the body signed by the secret?
+     * @param body Body of the request
+     * @param signature Signature from the header, like "sha256=..."
+     * @return TRUE if it is
+     */
+    private boolean signed(final byte[] body, final String signature) {
+        final Mac mac;
+        try {
+            mac = Mac.getInstance(TkHook.HMAC);
+            mac.init(
+                new SecretKeySpec(
+                    this.secret.getBytes(StandardCharsets.UTF_8), TkHook.HMAC
+                )
+            );
+        } catch (final NoSuchAlgorithmException | InvalidKeyException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return MessageDigest.isEqual(
+            String.format(
+                "sha256=%s", Hex.encodeHexString(mac.doFinal(body))
+            ).getBytes(StandardCharsets.UTF_8),
+            signature.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+    /**
+     * Is the value of the setting absent?
+     * @param value Value from the manifest, which is a placeholder
+     *  like "${github.login}" if it wasn't set in the build
+     * @return TRUE if absent
+     */
+    private static boolean absent(final String value) {
+        return value.isEmpty() || value.startsWith("${");
+    }
+
+    /**
+     * Parse JSON.
+     * @param body Body of the request
+     * @return JSON object
+     */
+    private static JsonObject json(final byte[] body) {
+        try (JsonReader reader = Json.createReader(
+            new ByteArrayInputStream(body)
+        )) {
+            return reader.readObject();
+        }
+    }
+
+}
@@ -32,20 +32,21 @@ package com.rultor.web;
 import com.jcabi.aspects.Tv;
 import com.jcabi.xml.XML;
 import com.rultor.agents.daemons.Home;
+import com.rultor.spi.Page;
 import com.rultor.spi.Talk;
 import com.rultor.spi.Talks;
 import java.io.IOException;
-import java.util.Date;
-import java.util.List;
+import java.net.HttpURLConnection;
 import java.util.logging.Level;
-import org.cactoos.iterable.Limited;
 import org.cactoos.list.SolidList;
 import org.ocpsoft.prettytime.PrettyTime;
+import org.takes.HttpException;
 import org.takes.Response;
 import org.takes.facets.flash.RsFlash;
 import org.takes.facets.fork.RqRegex;
 import org.takes.facets.fork.TkRegex;
 import org.takes.facets.forward.RsForward;
+import org.takes.misc.Href;
 import org.takes.rq.RqHref;
 import org.takes.rs.xe.XeAppend;
 import org.takes.rs.xe.XeDirectives;
@@ -79,20 +80,12 @@ final class TkSiblings implements TkRegex {
 
     @Override
     public Response act(final RqRegex req) throws IOException {
-        final Date since = new Date(
-            Long.parseLong(
-                new RqHref.Smart(new RqHref.Base(req)).single(
-                    "s", Long.toString(Long.MAX_VALUE)
-                )
-            )
-        );
+        final RqHref.Smart href = new RqHref.Smart(new RqHref.Base(req));
+        final String cursor = href.single("c", "");
+        final int size = TkSiblings.size(href.single("n", ""));
         final String repo = req.matcher().group(1);
-        final SolidList<Talk> siblings = new SolidList<>(
-            new Limited<>(
-                Tv.TWENTY,
-                this.talks.siblings(repo, since)
-            )
-        );
+        final Page page = this.siblings(repo, cursor, size);
+        final SolidList<Talk> siblings = new SolidList<>(page);
         if (!siblings.isEmpty()
             && !new RqUser(req).canSee(siblings.get(0))) {
             throw new RsForward(
@@ -106,33 +99,75 @@ final class TkSiblings implements TkRegex {
             "/xsl/siblings.xsl",
             req,
             new XeAppend("repo", repo),
-            new XeAppend("since", Long.toString(since.getTime())),
-            this.more(repo, siblings),
+            new XeAppend("cursor", cursor),
+            TkSiblings.more(repo, page, size),
             new XeDirectives(this.list(siblings))
         );
     }
 
+    /**
+     * Size of the page, requested.
+     * @param text Size, as a text, or empty for default
+     * @return Size, between one and a hundred
+     * @throws HttpException If it's not a number
+     */
+    private static int size(final String text) throws HttpException {
+        int size = Tv.TWENTY;
+        if (!text.isEmpty()) {
+            try {
+                size = Integer.parseInt(text);
+            } catch (final NumberFormatException ex) {
+                throw new HttpException(
+                    HttpURLConnection.HTTP_BAD_REQUEST,
+                    String.format("wrong size of the page \"%s\"", text),
+                    ex
+                );
+            }
+        }
+        return Math.max(1, Math.min(Tv.HUNDRED, size));
+    }
+
+    /**
+     * Page of siblings.
+     * @param repo Repo name
+     * @param cursor Cursor of the page
+     * @param size Size of the page
+     * @return The page
+     * @throws IOException If fails
+     */
+    private Page siblings(final String repo, final String cursor,
+        final int size) throws IOException {
+        try {
+            return this.talks.siblings(repo, cursor, size);
+        } catch (final IllegalArgumentException ex) {
+            throw new HttpException(
+                HttpURLConnection.HTTP_BAD_REQUEST,
+                String.format("wrong cursor \"%s\"", cursor),
+                ex
+            );
+        }
+    }
+
     /**
      * Link to more, if necessary.
      * @param repo Repo name
-     * @param siblings Siblings
+     * @param page The page
+     * @param size Size of the page
      * @return Link or empty
-     * @throws IOException If fails
      */
-    private XeSource more(final String repo, final List<Talk> siblings)
-        throws IOException {
+    private static XeSource more(final String repo, final Page page,
+        final int size) {
         final XeSource src;
-        if (siblings.size() == Tv.TWENTY) {
-            final Talk last = siblings.get(siblings.size() - 1);
+        if (page.last()) {
+            src = XeSource.EMPTY;
+        } else {
             src = new XeLink(
                 "more",
-                String.format(
-                    "/p/%s?s=%s",
-                    repo, last.updated().getTime()
-                )
+                new Href(String.format("/p/%s", repo))
+                    .with("c", page.next())
+                    .with("n", size)
+                    .toString()
             );
-        } else {
-            src = XeSource.EMPTY;
         }
         return src;
     }
@@ -159,7 +194,7 @@ final class TkSiblings implements TkRegex {
      * @throws IOException If fails
      */
     private Iterable<Directive> dirs(final Talk talk) throws IOException {
-        final XML xml = talk.read();
+        final XML xml = talk.full();
         final Directives dirs = new Directives().add("talk").add("archive");
         for (final XML log : xml.nodes("/talk/archive/log")) {
             dirs.append(TkSiblings.log(xml, log));
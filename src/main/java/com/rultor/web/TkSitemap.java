@@ -83,7 +83,7 @@ final class TkSitemap implements Take {
             "<urlset xmlns='http://www.sitemaps.org/schemas/sitemap/0.9'>"
         );
         for (final Talk talk : this.talks.recent()) {
-            final XML xml = talk.read();
+            final XML xml = talk.full();
             for (final String hash : xml.xpath("/talk/archive/log/@id")) {
                 doc.append(TkSitemap.toXML(talk, xml, hash));
             }
@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link Deadline}.
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+public final class DeadlineTest {
+
+    /**
+     * Deadline can interrupt the thread when the time is over.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void interruptsThread() throws Exception {
+        final ScheduledExecutorService timer =
+            Executors.newSingleThreadScheduledExecutor();
+        final Deadline deadline = new Deadline(timer, 10L);
+        boolean interrupted = false;
+        try {
+            TimeUnit.MINUTES.sleep(1L);
+        } catch (final InterruptedException ex) {
+            interrupted = true;
+        } finally {
+            deadline.close();
+            timer.shutdownNow();
+        }
+        MatcherAssert.assertThat(interrupted, Matchers.is(true));
+        MatcherAssert.assertThat(deadline.expired(), Matchers.is(true));
+    }
+
+    /**
+     * Deadline can clear the interruption when closed.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void clearsInterruptionOnClose() throws Exception {
+        final ScheduledExecutorService timer =
+            Executors.newSingleThreadScheduledExecutor();
+        final Deadline deadline = new Deadline(timer, 10L);
+        final long limit = System.currentTimeMillis()
+            + TimeUnit.MINUTES.toMillis(1L);
+        while (!deadline.expired() && System.currentTimeMillis() < limit) {
+            Thread.yield();
+        }
+        MatcherAssert.assertThat(deadline.expired(), Matchers.is(true));
+        deadline.close();
+        timer.shutdownNow();
+        MatcherAssert.assertThat(
+            Thread.currentThread().isInterrupted(),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * Deadline can stay silent when the thread is done in time.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void staysSilentWithinBudget() throws Exception {
+        final ScheduledExecutorService timer =
+            Executors.newSingleThreadScheduledExecutor();
+        final Deadline deadline = new Deadline(
+            timer, TimeUnit.MINUTES.toMillis(1L)
+        );
+        TimeUnit.MILLISECONDS.sleep(10L);
+        deadline.close();
+        timer.shutdownNow();
+        MatcherAssert.assertThat(deadline.expired(), Matchers.is(false));
+        MatcherAssert.assertThat(
+            Thread.currentThread().isInterrupted(),
+            Matchers.is(false)
+        );
+    }
+
+}
@@ -0,0 +1,245 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor;
+
+import co.stateful.mock.MkSttc;
+import com.jcabi.github.mock.MkGithub;
+import com.jcabi.xml.XML;
+import com.rultor.ready.Ready;
+import com.rultor.spi.Pulse;
+import com.rultor.spi.Shard;
+import com.rultor.spi.Talk;
+import com.rultor.spi.Talks;
+import com.rultor.spi.Tick;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.xembly.Directive;
+
+/**
+ * Test case for {@link Routine}.
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+public final class RoutineTest {
+
+    /**
+     * Routine can process other talks while one of them is slow,
+     * and interrupt the slow one when its budget is over.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void processesTalksAroundSlowOne() throws Exception {
+        final CountDownLatch fast = new CountDownLatch(1);
+        final AtomicBoolean overtaken = new AtomicBoolean();
+        final Talk slow = new RoutineTest.Slow(
+            new Talk.InFile("<talk later='false' name='slow' number='1'/>"),
+            () -> {
+                overtaken.set(fast.await(1L, TimeUnit.MINUTES));
+                TimeUnit.MINUTES.sleep(1L);
+            }
+        );
+        final Talk quick = new RoutineTest.Slow(
+            new Talk.InFile("<talk later='false' name='quick' number='2'/>"),
+            fast::countDown
+        );
+        final Talks talks = Mockito.mock(Talks.class);
+        Mockito.doReturn(Arrays.asList(slow, quick)).when(talks)
+            .active(Mockito.any(Shard.class));
+        final Collection<Throwable> errors = new ConcurrentLinkedQueue<>();
+        final Routine routine = new Routine(
+            talks, new Ready(),
+            new RoutineTest.Follower(), new RoutineTest.Errors(errors),
+            new MkGithub(), new MkSttc(), 2,
+            TimeUnit.SECONDS.toMillis(2L)
+        );
+        try {
+            routine.run();
+        } finally {
+            routine.close();
+        }
+        MatcherAssert.assertThat(overtaken.get(), Matchers.is(true));
+        MatcherAssert.assertThat(
+            errors,
+            Matchers.<Throwable>hasItem(
+                Matchers.<Throwable>instanceOf(TimeoutException.class)
+            )
+        );
+    }
+
+    /**
+     * Something to do when a talk is read for the first time.
+     */
+    private interface Delay {
+        /**
+         * Wait.
+         * @throws InterruptedException If interrupted
+         */
+        void pass() throws InterruptedException;
+    }
+
+    /**
+     * Talk which makes a delay when it's read for the first time.
+     */
+    private static final class Slow implements Talk {
+        /**
+         * Original talk.
+         */
+        private final transient Talk origin;
+        /**
+         * Delay.
+         */
+        private final transient RoutineTest.Delay delay;
+        /**
+         * Read already?
+         */
+        private final transient AtomicBoolean done = new AtomicBoolean();
+        /**
+         * Ctor.
+         * @param talk Original talk
+         * @param dly Delay
+         */
+        Slow(final Talk talk, final RoutineTest.Delay dly) {
+            this.origin = talk;
+            this.delay = dly;
+        }
+        @Override
+        public Long number() throws IOException {
+            return this.origin.number();
+        }
+        @Override
+        public String name() throws IOException {
+            return this.origin.name();
+        }
+        @Override
+        public Date updated() throws IOException {
+            return this.origin.updated();
+        }
+        @Override
+        public XML read() throws IOException {
+            if (!this.done.getAndSet(true)) {
+                try {
+                    this.delay.pass();
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(ex);
+                }
+            }
+            return this.origin.read();
+        }
+        @Override
+        public Map<String, String> project(final String... paths)
+            throws IOException {
+            return this.origin.project(paths);
+        }
+        @Override
+        public XML full() throws IOException {
+            return this.origin.full();
+        }
+        @Override
+        public void modify(final Iterable<Directive> dirs)
+            throws IOException {
+            this.origin.modify(dirs);
+        }
+        @Override
+        public void active(final boolean yes) throws IOException {
+            this.origin.active(yes);
+        }
+    }
+
+    /**
+     * Shard of a node, which is not the leader.
+     */
+    private static final class Follower implements Shard {
+        @Override
+        public void beat() {
+            // nothing to do
+        }
+        @Override
+        public boolean mine(final String talk) {
+            return true;
+        }
+        @Override
+        public boolean leader() {
+            return false;
+        }
+    }
+
+    /**
+     * Pulse, which remembers errors.
+     */
+    private static final class Errors implements Pulse {
+        /**
+         * Errors.
+         */
+        private final transient Collection<Throwable> all;
+        /**
+         * Ctor.
+         * @param errors Where to put errors
+         */
+        Errors(final Collection<Throwable> errors) {
+            this.all = errors;
+        }
+        @Override
+        public void add(final Tick tick) {
+            // nothing to do
+        }
+        @Override
+        public Iterable<Tick> ticks() {
+            return new LinkedList<>();
+        }
+        @Override
+        public Iterable<Throwable> error() {
+            return this.all;
+        }
+        @Override
+        public void error(final Iterable<Throwable> errors) {
+            for (final Throwable error : errors) {
+                this.all.add(error);
+            }
+        }
+    }
+
+}
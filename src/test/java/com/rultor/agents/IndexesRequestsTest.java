@@ -29,6 +29,9 @@
  */
 package com.rultor.agents;
 
+import co.stateful.Counter;
+import co.stateful.mock.MkSttc;
+import com.jcabi.aspects.Tv;
 import com.jcabi.matchers.XhtmlMatchers;
 import com.rultor.spi.Talks;
 import org.hamcrest.MatcherAssert;
@@ -63,7 +66,7 @@ public final class IndexesRequestsTest {
                 .add("args").up()
                 .add("type").set("deploy").up()
         );
-        new IndexesRequests().execute(talks);
+        new IndexesRequests(IndexesRequestsTest.counter()).execute(talks);
         MatcherAssert.assertThat(
             talks.get(name).read(),
             XhtmlMatchers.hasXPaths("/talk/request[@index='1']")
@@ -93,7 +96,7 @@ public final class IndexesRequestsTest {
                 .add("args").up()
                 .add("type").set("deploy").up()
         );
-        new IndexesRequests().execute(talks);
+        new IndexesRequests(IndexesRequestsTest.counter()).execute(talks);
         MatcherAssert.assertThat(
             talks.get(name).read(),
             XhtmlMatchers.hasXPaths("/talk/request[@index='3']")
@@ -101,8 +104,8 @@ public final class IndexesRequestsTest {
     }
 
     /**
-     * IndexesRequests should retrieve index from sibling
-     * (the test is skipped, more information in #733).
+     * IndexesRequests should retrieve index from sibling, when
+     * the counter is empty.
      * @throws Exception In case of error.
      */
     @Test
@@ -140,10 +143,68 @@ public final class IndexesRequestsTest {
                 .add("args").up()
                 .add("type").set("merge").up()
         );
-        new IndexesRequests().execute(talks);
+        new IndexesRequests(IndexesRequestsTest.counter()).execute(talks);
         MatcherAssert.assertThat(
             talks.get(third).read(),
-            XhtmlMatchers.hasXPaths("/talk/request[@index='5']")
+            XhtmlMatchers.hasXPaths("/talk/request[@index='3']")
+        );
+    }
+
+    /**
+     * IndexesRequests should continue the counter, when it's not empty.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void continuesCounter() throws Exception {
+        final String name = "talk";
+        final Talks talks = new Talks.InDir();
+        talks.create("", name);
+        talks.get(name).modify(
+            new Directives()
+                .xpath("/talk").push().xpath("wire").remove().pop()
+                .add("wire").add("href").set("#6").up().up()
+                .add("request").attr("id", "a13579")
+                .add("author").set("yegor256").up()
+                .add("args").up()
+                .add("type").set("deploy").up()
+        );
+        final Counter counter = IndexesRequestsTest.counter();
+        counter.set((long) Tv.TEN);
+        new IndexesRequests(counter).execute(talks);
+        MatcherAssert.assertThat(
+            talks.get(name).read(),
+            XhtmlMatchers.hasXPaths("/talk/request[@index='11']")
+        );
+    }
+
+    /**
+     * IndexesRequests should not touch requests with indexes.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void keepsExistingIndex() throws Exception {
+        final String name = "talk";
+        final Talks talks = new Talks.InDir();
+        talks.create("", name);
+        talks.get(name).modify(
+            new Directives()
+                .xpath("/talk").push().xpath("wire").remove().pop()
+                .add("wire").add("href").set("#1").up().up()
+                .add("request").attr("id", "a12345").attr("index", "7")
+                .add("author").set("yegor256").up()
+                .add("args").up()
+                .add("type").set("deploy").up()
+        );
+        final Counter counter = IndexesRequestsTest.counter();
+        final IndexesRequests agent = new IndexesRequests(counter);
+        agent.execute(talks);
+        agent.execute(talks);
+        MatcherAssert.assertThat(
+            talks.get(name).read(),
+            XhtmlMatchers.hasXPaths("/talk/request[@index='7']")
+        );
+        MatcherAssert.assertThat(
+            counter.incrementAndGet(0L), Matchers.equalTo(7L)
         );
     }
 
@@ -162,7 +223,7 @@ public final class IndexesRequestsTest {
                 .push().xpath("wire").remove().pop()
                 .add("wire").add("href").set("#1").up()
         );
-        new IndexesRequests().execute(talks);
+        new IndexesRequests(IndexesRequestsTest.counter()).execute(talks);
         MatcherAssert.assertThat(
             talks.get(name).read(),
             Matchers.not(
@@ -170,4 +231,13 @@ public final class IndexesRequestsTest {
             )
         );
     }
+
+    /**
+     * Make an empty counter.
+     * @return Counter
+     * @throws Exception In case of error.
+     */
+    private static Counter counter() throws Exception {
+        return new MkSttc().counters().get("test");
+    }
 }
@@ -29,13 +29,22 @@
  */
 package com.rultor.agents.daemons;
 
+import com.jcabi.aspects.Tv;
 import com.jcabi.matchers.XhtmlMatchers;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
 import com.rultor.Time;
 import com.rultor.spi.Agent;
 import com.rultor.spi.Talk;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
 import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.junit.Test;
+import org.mockito.Mockito;
 import org.xembly.Directives;
+import org.xembly.Xembler;
 
 /**
  * Tests for ${@link KillsDaemon}.
@@ -69,4 +78,47 @@ public final class KillsDaemonTest {
         );
     }
 
+    /**
+     * KillsDaemon can kill a daemon, when its time comes, even if the
+     * document of the talk is the same.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void killsDaemonWhenTimeComes() throws Exception {
+        final String host = "daemon.invalid";
+        final long started = System.currentTimeMillis()
+            + TimeUnit.SECONDS.toMillis(1L);
+        final XML xml = new XMLDocument(
+            new Xembler(
+                new Directives().add("talk").attr("name", "a")
+                    .add("shell").attr("id", "abcdef")
+                    .add("host").set(host).up()
+                    .add("port").set("22").up()
+                    .add("login").set("rultor").up()
+                    .add("key").set("secret").up()
+                    .up()
+                    .add("daemon").attr("id", "abcd")
+                    .add("started")
+                    .set(Instant.ofEpochMilli(started).toString())
+                    .up()
+                    .add("dir").set("/tmp/abcd")
+            ).xml()
+        );
+        final Talk talk = Mockito.mock(Talk.class);
+        Mockito.doReturn(xml).when(talk).read();
+        final Agent agent = new KillsDaemon(0L);
+        agent.execute(talk);
+        Mockito.verify(talk, Mockito.never()).modify(Mockito.any());
+        TimeUnit.MILLISECONDS.sleep(
+            started - System.currentTimeMillis() + (long) Tv.HUNDRED
+        );
+        String failure = "";
+        try {
+            agent.execute(talk);
+        } catch (final UnknownHostException ex) {
+            failure = ex.getMessage();
+        }
+        MatcherAssert.assertThat(failure, Matchers.containsString(host));
+    }
+
 }
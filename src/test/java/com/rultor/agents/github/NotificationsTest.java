@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.agents.github;
+
+import co.stateful.Sttc;
+import co.stateful.mock.MkSttc;
+import com.jcabi.github.RtGithub;
+import com.jcabi.http.request.FakeRequest;
+import java.net.HttpURLConnection;
+import java.time.Instant;
+import javax.json.JsonObject;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests for ${@link Notifications}.
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class NotificationsTest {
+
+    /**
+     * Notifications can return every notification only once.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void returnsNotificationsOnce() throws Exception {
+        final String time = "2019-01-01T10:00:00Z";
+        final Sttc sttc = new MkSttc();
+        final Notifications notifications = new Notifications(
+            new RtGithub(
+                new FakeRequest()
+                    .withStatus(HttpURLConnection.HTTP_OK)
+                    .withHeader("X-Poll-Interval", "0")
+                    .withBody(
+                        String.format(
+                            "[{\"id\":\"1\",\"updated_at\":\"%s\"}]", time
+                        )
+                    )
+            ),
+            sttc
+        );
+        MatcherAssert.assertThat(
+            notifications.fresh(), Matchers.<JsonObject>iterableWithSize(1)
+        );
+        notifications.commit();
+        MatcherAssert.assertThat(
+            notifications.fresh(), Matchers.emptyIterable()
+        );
+        MatcherAssert.assertThat(
+            sttc.counters().get("rt-notifications").incrementAndGet(0L),
+            Matchers.equalTo(Instant.parse(time).toEpochMilli())
+        );
+    }
+
+    /**
+     * Notifications can return notifications again, if they are
+     * not committed.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void returnsNotificationsUntilCommitted() throws Exception {
+        final Sttc sttc = new MkSttc();
+        final Notifications notifications = new Notifications(
+            new RtGithub(
+                new FakeRequest()
+                    .withStatus(HttpURLConnection.HTTP_OK)
+                    .withHeader("X-Poll-Interval", "0")
+                    .withBody(
+                        String.format(
+                            "[{\"id\":\"2\",\"updated_at\":\"%s\"}]",
+                            "2019-02-01T10:00:00Z"
+                        )
+                    )
+            ),
+            sttc
+        );
+        notifications.fresh();
+        MatcherAssert.assertThat(
+            notifications.fresh(), Matchers.<JsonObject>iterableWithSize(1)
+        );
+        MatcherAssert.assertThat(
+            sttc.counters().get("rt-notifications").incrementAndGet(0L),
+            Matchers.equalTo(0L)
+        );
+    }
+
+    /**
+     * Notifications can wait for the poll interval.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void waitsForPollInterval() throws Exception {
+        final Notifications notifications = new Notifications(
+            new RtGithub(
+                new FakeRequest()
+                    .withStatus(HttpURLConnection.HTTP_NOT_MODIFIED)
+                    .withHeader("X-Poll-Interval", "60")
+            ),
+            new MkSttc()
+        );
+        MatcherAssert.assertThat(
+            notifications.fresh(), Matchers.emptyIterable()
+        );
+        MatcherAssert.assertThat(
+            notifications.fresh(), Matchers.emptyIterable()
+        );
+    }
+
+    /**
+     * Notifications can forget notifications, which were not committed,
+     * when it's too early to ask Github again.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void forgetsUncommittedWithinPollInterval() throws Exception {
+        final Sttc sttc = new MkSttc();
+        final Notifications notifications = new Notifications(
+            new RtGithub(
+                new FakeRequest()
+                    .withStatus(HttpURLConnection.HTTP_OK)
+                    .withHeader("X-Poll-Interval", "60")
+                    .withBody(
+                        String.format(
+                            "[{\"id\":\"3\",\"updated_at\":\"%s\"}]",
+                            "2019-03-01T10:00:00Z"
+                        )
+                    )
+            ),
+            sttc
+        );
+        MatcherAssert.assertThat(
+            notifications.fresh(), Matchers.<JsonObject>iterableWithSize(1)
+        );
+        MatcherAssert.assertThat(
+            notifications.fresh(), Matchers.emptyIterable()
+        );
+        notifications.commit();
+        MatcherAssert.assertThat(
+            sttc.counters().get("rt-notifications").incrementAndGet(0L),
+            Matchers.equalTo(0L)
+        );
+    }
+
+}
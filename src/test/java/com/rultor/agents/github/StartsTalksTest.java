@@ -29,6 +29,7 @@
  */
 package com.rultor.agents.github;
 
+import co.stateful.mock.MkSttc;
 import com.jcabi.github.Issue;
 import com.jcabi.github.Repo;
 import com.jcabi.github.mock.MkGithub;
@@ -58,7 +59,9 @@ public final class StartsTalksTest {
         final Repo repo = new MkGithub().randomRepo();
         final Issue issue = repo.issues().create("", "");
         issue.comments().post("hey, do it");
-        final SuperAgent agent = new StartsTalks(repo.github());
+        final SuperAgent agent = new StartsTalks(
+            repo.github(), new Notifications(repo.github(), new MkSttc())
+        );
         final Talks talks = new Talks.InDir();
         agent.execute(talks);
         MatcherAssert.assertThat(
@@ -96,6 +96,61 @@ public final class UnderstandsTest {
         );
     }
 
+    /**
+     * Understands can remember when the last seen comment was created.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void remembersTimeOfSeenComment() throws Exception {
+        final Repo repo = new MkGithub().randomRepo();
+        final Issue issue = repo.issues().create("", "");
+        issue.comments().post("@jeff hello");
+        final Agent agent = new Understands(
+            repo.github(),
+            new QnIfContains("hello", new QnHello())
+        );
+        final Talk talk = UnderstandsTest.talk(issue);
+        agent.execute(talk);
+        issue.comments().post("@jeff hello again");
+        agent.execute(talk);
+        MatcherAssert.assertThat(
+            talk.read(),
+            XhtmlMatchers.hasXPaths(
+                "/talk/wire[github-seen='2']",
+                "/talk/wire/github-seen-at"
+            )
+        );
+    }
+
+    /**
+     * Understands can remember when the last seen comment was created,
+     * even if there is nothing new to handle.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void stampsSeenCommentWithoutNewOnes() throws Exception {
+        final Repo repo = new MkGithub().randomRepo();
+        final Issue issue = repo.issues().create("", "");
+        issue.comments().post("@jeff hello");
+        final Agent agent = new Understands(
+            repo.github(),
+            new QnIfContains("hello", new QnHello())
+        );
+        final Talk talk = UnderstandsTest.talk(issue);
+        talk.modify(
+            new Directives().xpath("/talk/wire")
+                .add("github-seen").set("1")
+        );
+        agent.execute(talk);
+        MatcherAssert.assertThat(
+            talk.read(),
+            XhtmlMatchers.hasXPaths(
+                "/talk/wire[github-seen='1']",
+                "/talk/wire/github-seen-at"
+            )
+        );
+    }
+
     /**
      * Understands can ignore LATER req.
      * @throws Exception In case of error.
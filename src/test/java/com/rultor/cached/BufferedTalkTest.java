@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.cached;
+
+import com.jcabi.matchers.XhtmlMatchers;
+import com.rultor.spi.Talk;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.xembly.Directives;
+
+/**
+ * Tests for ${@link BufferedTalk}.
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class BufferedTalkTest {
+
+    /**
+     * BufferedTalk can keep modifications until flushed.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void flushesModificationsTogether() throws Exception {
+        final Talk origin = new Talk.InFile();
+        final BufferedTalk talk = new BufferedTalk(origin);
+        talk.modify(
+            new Directives().xpath("/talk").add("wire")
+                .add("href").set("#").up()
+        );
+        talk.modify(
+            new Directives().xpath("/talk/wire")
+                .add("github-seen").set("5")
+        );
+        MatcherAssert.assertThat(
+            talk.read(),
+            XhtmlMatchers.hasXPath("/talk/wire[href and github-seen='5']")
+        );
+        MatcherAssert.assertThat(
+            origin.read(),
+            Matchers.not(XhtmlMatchers.hasXPath("/talk/wire"))
+        );
+        talk.flush();
+        MatcherAssert.assertThat(
+            origin.read(),
+            XhtmlMatchers.hasXPath("/talk/wire[href and github-seen='5']")
+        );
+    }
+
+    /**
+     * BufferedTalk can reject an invalid modification right away.
+     * @throws Exception In case of error.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidModification() throws Exception {
+        new BufferedTalk(new Talk.InFile()).modify(
+            new Directives().xpath("/talk").add("broken")
+        );
+    }
+
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.cached;
+
+import com.jcabi.matchers.XhtmlMatchers;
+import com.rultor.spi.Talk;
+import com.rultor.spi.Talks;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.xembly.Directives;
+
+/**
+ * Tests for {@link CdTalks}.
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class CdTalksTest {
+
+    /**
+     * CdTalks can cache XML of a talk until it's modified.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void cachesXmlUntilModified() throws Exception {
+        final TalkCache cache = new TalkCache(1L << 20);
+        final Talks talks = new CdTalks(new Talks.InDir(), cache);
+        final String name = "hot";
+        talks.create("x/y", name);
+        final Talk talk = talks.get(name);
+        talk.read();
+        talk.read();
+        MatcherAssert.assertThat(
+            cache.stats().hitCount(),
+            Matchers.equalTo(1L)
+        );
+        talk.modify(new Directives().xpath("/talk").attr("later", "true"));
+        MatcherAssert.assertThat(
+            talks.get(name).read(),
+            XhtmlMatchers.hasXPath("/talk[@later='true']")
+        );
+    }
+
+    /**
+     * CdTalks can evict XML when the cache is full.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void evictsWhenFull() throws Exception {
+        final TalkCache cache = new TalkCache(1L);
+        final Talks talks = new CdTalks(new Talks.InDir(), cache);
+        final String name = "big";
+        talks.create("x/z", name);
+        talks.get(name).read();
+        talks.get(name).read();
+        MatcherAssert.assertThat(
+            cache.stats().hitCount(),
+            Matchers.equalTo(0L)
+        );
+    }
+
+}
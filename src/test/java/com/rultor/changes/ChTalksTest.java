@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.changes;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.matchers.XhtmlMatchers;
+import com.rultor.spi.Talk;
+import com.rultor.spi.Talks;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.xembly.Directives;
+
+/**
+ * Tests for ${@link ChTalks}.
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class ChTalksTest {
+
+    /**
+     * Temp directory.
+     * @checkstyle VisibilityModifierCheck (5 lines)
+     */
+    @Rule
+    public final TemporaryFolder temp = new TemporaryFolder();
+
+    /**
+     * ChTalks can report all changes of a talk.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void reportsChanges() throws Exception {
+        final Sink.Ring ring = new Sink.Ring(Tv.TEN);
+        final Talks talks = new ChTalks(new Talks.InDir(), ring);
+        final String name = "a";
+        final String later = "/talk/@later";
+        talks.create("x/y", name);
+        talks.get(name).modify(new Directives());
+        talks.get(name).modify(
+            new Directives().xpath("/talk").attr("later", "true")
+        );
+        talks.get(name).active(false);
+        talks.delete(name);
+        final List<Change> changes = ring.changes();
+        MatcherAssert.assertThat(changes, Matchers.hasSize(Tv.FOUR));
+        MatcherAssert.assertThat(
+            changes.get(0).kind(), Matchers.equalTo("create")
+        );
+        MatcherAssert.assertThat(
+            changes.get(1).before(), Matchers.hasEntry(later, "false")
+        );
+        MatcherAssert.assertThat(
+            changes.get(1).after(), Matchers.hasEntry(later, "true")
+        );
+        MatcherAssert.assertThat(
+            changes.get(2).kind(), Matchers.equalTo("deactivate")
+        );
+        MatcherAssert.assertThat(
+            changes.get(Tv.THREE).after().isEmpty(), Matchers.is(true)
+        );
+    }
+
+    /**
+     * ChTalks can delete an absent talk, without reporting it.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void deletesAbsentTalk() throws Exception {
+        final Sink.Ring ring = new Sink.Ring(Tv.TEN);
+        new ChTalks(new Talks.InDir(), ring).delete("absent");
+        MatcherAssert.assertThat(ring.changes(), Matchers.empty());
+    }
+
+    /**
+     * ChTalks can drop the oldest changes from a full ring.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void dropsOldestChanges() throws Exception {
+        final Sink.Ring ring = new Sink.Ring(2);
+        final Talks talks = new ChTalks(new Talks.InDir(), ring);
+        talks.create("", "first");
+        talks.create("", "second");
+        talks.create("", "third");
+        MatcherAssert.assertThat(ring.changes(), Matchers.hasSize(2));
+        MatcherAssert.assertThat(
+            ring.changes().get(0).number(), Matchers.equalTo(2L)
+        );
+    }
+
+    /**
+     * ChTalks can log changes into a file.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void logsChangesToFile() throws Exception {
+        final File file = new File(this.temp.getRoot(), "changes.log");
+        final Talks talks = new ChTalks(
+            new Talks.InDir(), new Sink.InFile(file)
+        );
+        talks.create("", "b");
+        talks.get("b").active(true);
+        final List<String> lines = Files.readAllLines(
+            file.toPath(), StandardCharsets.UTF_8
+        );
+        MatcherAssert.assertThat(lines, Matchers.hasSize(2));
+        MatcherAssert.assertThat(
+            lines.get(1), Matchers.containsString("\"kind\":\"activate\"")
+        );
+    }
+
+    /**
+     * ChTalks can report key fields of the document the talk read.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void reportsChangesOfReadDocument() throws Exception {
+        final Sink.Ring ring = new Sink.Ring(Tv.TEN);
+        final Talks talks = new ChTalks(new Talks.InDir(), ring);
+        final String name = "c";
+        final String later = "/talk/@later";
+        talks.create("x/z", name);
+        final Talk talk = talks.get(name);
+        talk.read();
+        talk.modify(new Directives().xpath("/talk").attr("later", "true"));
+        talk.modify(new Directives().xpath("/talk").attr("later", "false"));
+        final List<Change> changes = ring.changes();
+        MatcherAssert.assertThat(changes, Matchers.hasSize(Tv.THREE));
+        MatcherAssert.assertThat(
+            changes.get(1).after(), Matchers.hasEntry(later, "true")
+        );
+        MatcherAssert.assertThat(
+            changes.get(2).before(), Matchers.hasEntry(later, "true")
+        );
+        MatcherAssert.assertThat(
+            changes.get(2).after(), Matchers.hasEntry(later, "false")
+        );
+    }
+
+    /**
+     * ChTalks can modify talks, even if the sink fails.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void ignoresFailuresOfSink() throws Exception {
+        final Talks talks = new ChTalks(
+            new Talks.InDir(),
+            change -> {
+                throw new IOException("sink is broken");
+            }
+        );
+        final String name = "d";
+        talks.create("", name);
+        talks.get(name).modify(
+            new Directives().xpath("/talk").attr("later", "true")
+        );
+        MatcherAssert.assertThat(
+            talks.get(name).read(),
+            XhtmlMatchers.hasXPath("/talk[@later='true']")
+        );
+    }
+
+}
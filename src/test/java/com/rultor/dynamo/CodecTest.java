@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.dynamo;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests for {@link Codec}.
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class CodecTest {
+
+    /**
+     * Sample XML.
+     */
+    private static final String XML = String.join(
+        "",
+        "<talk later='false' name='a/b#1' number='1' public='true'>",
+        "<wire><href>https://github.com/a/b/issues/1</href>",
+        "<github-repo>a/b</github-repo><github-issue>1</github-issue>",
+        "</wire></talk>"
+    );
+
+    /**
+     * Deflate codec can encode and decode.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void deflatesAndInflates() throws Exception {
+        final Codec codec = new Codec.Deflate();
+        MatcherAssert.assertThat(
+            codec.decode(codec.encode(CodecTest.XML)),
+            Matchers.equalTo(CodecTest.XML)
+        );
+    }
+
+    /**
+     * Deflate codec is more compact than GZIP.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void encodesSmallerThanGzip() throws Exception {
+        MatcherAssert.assertThat(
+            new Codec.Deflate().encode(CodecTest.XML).length,
+            Matchers.lessThan(new Codec.Gzip().encode(CodecTest.XML).length)
+        );
+    }
+
+    /**
+     * GZIP codec can encode and decode.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void gzipsAndUnzips() throws Exception {
+        final Codec codec = new Codec.Gzip();
+        MatcherAssert.assertThat(
+            codec.decode(codec.encode(CodecTest.XML)),
+            Matchers.equalTo(CodecTest.XML)
+        );
+    }
+
+}
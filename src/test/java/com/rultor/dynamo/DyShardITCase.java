@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.dynamo;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.dynamo.Credentials;
+import com.jcabi.dynamo.Region;
+import com.jcabi.dynamo.retry.ReRegion;
+import com.jcabi.manifests.Manifests;
+import com.rultor.spi.Shard;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Integration case for {@link DyShard}.
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class DyShardITCase {
+
+    /**
+     * DyShard can own nothing until the first beat.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void ownsNothingBeforeBeat() throws Exception {
+        final Shard shard = new DyShard(
+            this.dynamo(), "alone", TimeUnit.MINUTES.toMillis(1L)
+        );
+        MatcherAssert.assertThat(shard.mine("a/b#1"), Matchers.is(false));
+        MatcherAssert.assertThat(shard.leader(), Matchers.is(false));
+        shard.beat();
+        boolean owns = false;
+        for (int idx = 0; idx < Tv.TWENTY; ++idx) {
+            owns |= shard.mine(String.format("a/b#%d", idx));
+        }
+        MatcherAssert.assertThat(owns, Matchers.is(true));
+    }
+
+    /**
+     * DyShard can give each talk to one node only.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void givesTalkToOneNode() throws Exception {
+        final Shard first = new DyShard(
+            this.dynamo(), "first", TimeUnit.MINUTES.toMillis(1L)
+        );
+        final Shard second = new DyShard(
+            this.dynamo(), "second", TimeUnit.MINUTES.toMillis(1L)
+        );
+        first.beat();
+        second.beat();
+        first.beat();
+        for (int idx = 0; idx < Tv.TWENTY; ++idx) {
+            final String talk = String.format("c/d#%d", idx);
+            MatcherAssert.assertThat(
+                first.mine(talk) && second.mine(talk),
+                Matchers.is(false)
+            );
+        }
+    }
+
+    /**
+     * DyShard can leave a talk to the node which holds its lease, even
+     * if the nodes see each other differently.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void respectsLeaseOfAnotherNode() throws Exception {
+        final Shard early = new DyShard(
+            this.dynamo(), "early", TimeUnit.MINUTES.toMillis(1L)
+        );
+        early.beat();
+        final Collection<String> taken = new LinkedList<>();
+        for (int idx = 0; idx < Tv.TWENTY; ++idx) {
+            final String talk = String.format("e/f#%d", idx);
+            if (early.mine(talk)) {
+                taken.add(talk);
+            }
+        }
+        MatcherAssert.assertThat(taken, Matchers.not(Matchers.empty()));
+        final Shard late = new DyShard(
+            this.dynamo(), "late", TimeUnit.MINUTES.toMillis(1L)
+        );
+        late.beat();
+        for (final String talk : taken) {
+            MatcherAssert.assertThat(late.mine(talk), Matchers.is(false));
+        }
+    }
+
+    /**
+     * DyShard can elect only one leader.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void electsOneLeader() throws Exception {
+        final Shard one = new DyShard(
+            this.dynamo(), "one", TimeUnit.MINUTES.toMillis(1L)
+        );
+        final Shard two = new DyShard(
+            this.dynamo(), "two", TimeUnit.MINUTES.toMillis(1L)
+        );
+        one.beat();
+        two.beat();
+        MatcherAssert.assertThat(one.leader(), Matchers.is(true));
+        MatcherAssert.assertThat(two.leader(), Matchers.is(false));
+        MatcherAssert.assertThat(one.leader(), Matchers.is(true));
+    }
+
+    /**
+     * DynamoDB region for tests.
+     * @return Region
+     */
+    private Region dynamo() {
+        final String key = Manifests.read("Rultor-DynamoKey");
+        Assume.assumeNotNull(key);
+        final String port = System.getProperty("dynamo.port");
+        Assume.assumeNotNull(port);
+        MatcherAssert.assertThat(key.startsWith("AAAA"), Matchers.is(true));
+        return new Region.Prefixed(
+            new ReRegion(
+                new Region.Simple(
+                    new Credentials.Direct(
+                        new Credentials.Simple(
+                            key,
+                            Manifests.read("Rultor-DynamoSecret")
+                        ),
+                        Integer.parseInt(port)
+                    )
+                )
+            ),
+            "rt-"
+        );
+    }
+
+}
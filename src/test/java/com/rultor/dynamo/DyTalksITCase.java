@@ -30,15 +30,25 @@
 package com.rultor.dynamo;
 
 import co.stateful.mock.MkSttc;
+import com.jcabi.aspects.Tv;
 import com.jcabi.dynamo.Credentials;
 import com.jcabi.dynamo.Region;
 import com.jcabi.dynamo.retry.ReRegion;
 import com.jcabi.manifests.Manifests;
 import com.jcabi.matchers.XhtmlMatchers;
+import com.rultor.cached.CdTalks;
+import com.rultor.changes.ChTalks;
+import com.rultor.changes.Change;
+import com.rultor.changes.Sink;
+import com.rultor.ready.RdTalks;
+import com.rultor.ready.Ready;
+import com.rultor.spi.Page;
 import com.rultor.spi.Talk;
 import com.rultor.spi.Talks;
 import java.io.IOException;
+import java.util.ConcurrentModificationException;
 import java.util.Date;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import org.hamcrest.CustomMatcher;
 import org.hamcrest.Description;
@@ -76,6 +86,182 @@ public final class DyTalksITCase {
         );
     }
 
+    /**
+     * DyTalk can keep modifications made through different objects.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void keepsAllModifications() throws Exception {
+        final Talks talks = new DyTalks(
+            this.dynamo(), new MkSttc().counters().get("")
+        );
+        final String name = "yegor256/rultor#1125";
+        talks.create("c/d", name);
+        final Talk first = talks.get(name);
+        final Talk second = talks.get(name);
+        first.modify(new Directives().xpath("/talk").attr("later", "true"));
+        second.modify(new Directives().xpath("/talk").attr("public", "true"));
+        MatcherAssert.assertThat(
+            talks.get(name).read(),
+            XhtmlMatchers.hasXPaths(
+                "/talk[@later='true']",
+                "/talk[@public='true']"
+            )
+        );
+    }
+
+    /**
+     * DyTalk can reject a modification made for an old version of it.
+     * @throws Exception If some problem inside
+     */
+    @Test(expected = ConcurrentModificationException.class)
+    public void rejectsModificationOfOldVersion() throws Exception {
+        final Talks talks = new DyTalks(
+            this.dynamo(), new MkSttc().counters().get("")
+        );
+        final String name = "yegor256/rultor#1130";
+        talks.create("c/d", name);
+        final Talk first = talks.get(name);
+        first.read();
+        talks.get(name).modify(
+            new Directives().xpath("/talk").attr("later", "true")
+        );
+        first.modify(new Directives().xpath("/talk").attr("public", "true"));
+    }
+
+    /**
+     * DyTalks can load active talks together with their XML.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void loadsActiveTalks() throws Exception {
+        final Talks talks = new DyTalks(
+            this.dynamo(), new MkSttc().counters().get("")
+        );
+        final String name = "yegor256/rultor#1126";
+        talks.create("e/f", name);
+        talks.get(name).modify(
+            new Directives().xpath("/talk").attr("later", "true")
+        );
+        MatcherAssert.assertThat(
+            talks.active(),
+            Matchers.hasItem(new DyTalksITCase.TalkMatcher(name))
+        );
+        for (final Talk talk : talks.active()) {
+            if (name.equals(talk.name())) {
+                MatcherAssert.assertThat(
+                    talk.read(),
+                    XhtmlMatchers.hasXPath("/talk[@later='true']")
+                );
+            }
+        }
+    }
+
+    /**
+     * DyTalk loaded with its attributes can read its own modifications.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void readsOwnModifications() throws Exception {
+        final Talks talks = new DyTalks(
+            this.dynamo(), new MkSttc().counters().get("")
+        );
+        final String name = "yegor256/rultor#1128";
+        talks.create("e/g", name);
+        for (final Talk talk : talks.active()) {
+            if (name.equals(talk.name())) {
+                final Date before = talk.updated();
+                talk.modify(
+                    new Directives().xpath("/talk").attr("later", "true")
+                );
+                MatcherAssert.assertThat(
+                    talk.read(),
+                    XhtmlMatchers.hasXPath("/talk[@later='true']")
+                );
+                MatcherAssert.assertThat(
+                    talk.project("/talk/@later"),
+                    Matchers.hasEntry("/talk/@later", "true")
+                );
+                MatcherAssert.assertThat(
+                    talk.updated(), Matchers.greaterThan(before)
+                );
+            }
+        }
+    }
+
+    /**
+     * Talks in Dynamo, decorated as in production, can report the values
+     * of a talk after its change.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void reportsChangesOfActiveTalks() throws Exception {
+        final Sink.Ring ring = new Sink.Ring(Tv.TEN);
+        final Talks talks = new ChTalks(
+            new RdTalks(
+                new CdTalks(
+                    new DyTalks(
+                        this.dynamo(), new MkSttc().counters().get("")
+                    )
+                ),
+                new Ready()
+            ),
+            ring
+        );
+        final String name = "yegor256/rultor#1129";
+        talks.create("e/h", name);
+        for (final Talk talk : talks.active()) {
+            if (name.equals(talk.name())) {
+                talk.modify(
+                    new Directives().xpath("/talk").attr("later", "true")
+                );
+            }
+        }
+        final List<Change> changes = ring.changes();
+        MatcherAssert.assertThat(
+            changes.get(changes.size() - 1).before(),
+            Matchers.hasEntry("/talk/@later", "false")
+        );
+        MatcherAssert.assertThat(
+            changes.get(changes.size() - 1).after(),
+            Matchers.hasEntry("/talk/@later", "true")
+        );
+    }
+
+    /**
+     * DyTalk can move old logs of the archive to the archive table.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void keepsOldLogsInArchive() throws Exception {
+        final Talks talks = new DyTalks(
+            this.dynamo(), new MkSttc().counters().get("")
+        );
+        final String name = "yegor256/rultor#1127";
+        talks.create("g/h", name);
+        final Directives dirs = new Directives().xpath("/talk").add("archive");
+        for (int idx = 0; idx < Tv.TWENTY; ++idx) {
+            dirs.add("log")
+                .attr("id", String.format("log-%d", idx))
+                .attr("title", "build")
+                .set(String.format("s3://test/%d.txt", idx))
+                .up();
+        }
+        talks.get(name).modify(dirs);
+        MatcherAssert.assertThat(
+            talks.get(name).read().nodes("/talk/archive/log"),
+            Matchers.hasSize(Tv.TEN)
+        );
+        MatcherAssert.assertThat(
+            talks.get(name).full(),
+            XhtmlMatchers.hasXPaths(
+                "/talk/archive[count(log)=20]",
+                "/talk/archive/log[1][@id='log-0']",
+                "/talk/archive/log[20][@id='log-19']"
+            )
+        );
+    }
+
     /**
      * DyTalks can list recent talks.
      * @throws Exception If some problem inside
@@ -137,17 +323,20 @@ public final class DyTalksITCase {
         );
         final String repo = "repo1";
         talks.create(repo, "yegor256/rultor#9");
-        final Date date = new Date();
         TimeUnit.SECONDS.sleep(2L);
         talks.create(repo, "yegor256/rultor#10");
-        TimeUnit.SECONDS.sleep(2L);
         MatcherAssert.assertThat(
-            talks.siblings(repo, new Date()),
+            talks.siblings(repo, "", Tv.TEN),
             Matchers.<Talk>iterableWithSize(2)
         );
+        final Page page = talks.siblings(repo, "", 1);
+        MatcherAssert.assertThat(
+            page.iterator().next().name(),
+            Matchers.equalTo("yegor256/rultor#10")
+        );
         MatcherAssert.assertThat(
-            talks.siblings(repo, date),
-            Matchers.<Talk>iterableWithSize(1)
+            talks.siblings(repo, page.next(), 1).iterator().next().name(),
+            Matchers.equalTo("yegor256/rultor#9")
         );
     }
 
@@ -185,6 +374,41 @@ public final class DyTalksITCase {
         );
     }
 
+    /**
+     * DyTalks can keep only public passive talks in the index of
+     * recent talks.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void indexesPublicPassiveTalks() throws Exception {
+        final Talks talks = new DyTalks(
+            this.dynamo(), new MkSttc().counters().get("")
+        );
+        final String name = "yegor256/rultor#1131";
+        talks.create("a/gg", name);
+        final Talk talk = talks.get(name);
+        talk.modify(new Directives().xpath("/talk").attr("public", "false"));
+        talk.active(false);
+        MatcherAssert.assertThat(
+            talks.recent("", Tv.HUNDRED),
+            Matchers.not(
+                Matchers.hasItem(new DyTalksITCase.TalkMatcher(name))
+            )
+        );
+        talk.modify(new Directives().xpath("/talk").attr("public", "true"));
+        MatcherAssert.assertThat(
+            talks.recent("", Tv.HUNDRED),
+            Matchers.hasItem(new DyTalksITCase.TalkMatcher(name))
+        );
+        talk.active(true);
+        MatcherAssert.assertThat(
+            talks.recent("", Tv.HUNDRED),
+            Matchers.not(
+                Matchers.hasItem(new DyTalksITCase.TalkMatcher(name))
+            )
+        );
+    }
+
     /**
      * DynamoDB region for tests.
      * @return Region
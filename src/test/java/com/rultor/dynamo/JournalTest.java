@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.dynamo;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.jcabi.matchers.XhtmlMatchers;
+import com.jcabi.xml.XMLDocument;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.xembly.Directives;
+
+/**
+ * Tests for {@link Journal}.
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class JournalTest {
+
+    /**
+     * Journal can apply its entries in order.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void appliesEntriesInOrder() throws Exception {
+        MatcherAssert.assertThat(
+            new Journal(
+                Collections.singletonMap(
+                    DyTalks.ATTR_JOURNAL,
+                    new AttributeValue().withL(
+                        new AttributeValue(
+                            new Directives().xpath("/talk")
+                                .add("request").attr("id", "a1").toString()
+                        ),
+                        new AttributeValue(
+                            new Directives().xpath("/talk/request")
+                                .attr("id", "b2").toString()
+                        )
+                    )
+                )
+            ).apply(new XMLDocument("<talk name='x'/>")),
+            XhtmlMatchers.hasXPaths("/talk/request[@id='b2']")
+        );
+    }
+
+    /**
+     * Journal without entries fits small scripts only.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void fitsSmallScripts() throws Exception {
+        final Journal journal = new Journal(Collections.emptyMap());
+        MatcherAssert.assertThat(
+            journal.fits(new Directives().xpath("/talk").toString()),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            journal.fits(new String(new char[1 << 16])),
+            Matchers.is(false)
+        );
+    }
+
+}
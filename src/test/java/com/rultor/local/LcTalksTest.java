@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.local;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.matchers.XhtmlMatchers;
+import com.rultor.spi.Page;
+import com.rultor.spi.Talk;
+import java.io.File;
+import java.io.RandomAccessFile;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.xembly.Directives;
+
+/**
+ * Tests for {@link LcTalks}.
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class LcTalksTest {
+
+    /**
+     * Temp directory.
+     * @checkstyle VisibilityModifierCheck (5 lines)
+     */
+    @Rule
+    public final transient TemporaryFolder temp = new TemporaryFolder();
+
+    /**
+     * LcTalks can create, modify and find talks.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void createsAndModifiesTalks() throws Exception {
+        try (LcTalks talks = new LcTalks(this.temp.newFolder())) {
+            talks.create("a/b", "first");
+            talks.create("a/b", "second");
+            talks.get("second").modify(
+                new Directives().xpath("/talk").attr("later", "true")
+            );
+            MatcherAssert.assertThat(
+                talks.get(2L).read(),
+                XhtmlMatchers.hasXPaths(
+                    "/talk[@name='second' and @number='2' and @later='true']"
+                )
+            );
+            MatcherAssert.assertThat(
+                talks.exists((long) Tv.THREE),
+                Matchers.is(false)
+            );
+            MatcherAssert.assertThat(
+                talks.active(),
+                Matchers.<Talk>iterableWithSize(2)
+            );
+        }
+    }
+
+    /**
+     * LcTalks can find siblings and recent talks.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void findsSiblingsAndRecentTalks() throws Exception {
+        try (LcTalks talks = new LcTalks(this.temp.newFolder())) {
+            talks.create("x/y", "one");
+            talks.create("x/z", "two");
+            talks.get("one").active(false);
+            MatcherAssert.assertThat(
+                talks.siblings("x/y", "", Tv.TEN),
+                Matchers.<Talk>iterableWithSize(1)
+            );
+            MatcherAssert.assertThat(
+                talks.siblings("x/w", "", Tv.TEN),
+                Matchers.emptyIterable()
+            );
+            MatcherAssert.assertThat(
+                talks.recent().iterator().next().name(),
+                Matchers.equalTo("one")
+            );
+            MatcherAssert.assertThat(
+                talks.active().iterator().next().name(),
+                Matchers.equalTo("two")
+            );
+        }
+    }
+
+    /**
+     * LcTalks can find public recent talks behind private ones.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void findsPublicTalksBehindPrivateOnes() throws Exception {
+        try (LcTalks talks = new LcTalks(this.temp.newFolder())) {
+            talks.create("p/q", "public");
+            talks.get("public").active(false);
+            for (int idx = 0; idx < Tv.FIVE; ++idx) {
+                final String name = String.format("private-%d", idx);
+                talks.create("p/q", name);
+                talks.get(name).modify(
+                    new Directives().xpath("/talk").attr("public", "false")
+                );
+                talks.get(name).active(false);
+            }
+            MatcherAssert.assertThat(
+                talks.recent().iterator().next().name(),
+                Matchers.equalTo("public")
+            );
+        }
+    }
+
+    /**
+     * LcTalks can list siblings page by page.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void listsSiblingsByPages() throws Exception {
+        try (LcTalks talks = new LcTalks(this.temp.newFolder())) {
+            talks.create("e/f", "x1");
+            talks.create("e/f", "x2");
+            talks.create("e/f", "x3");
+            final Page page = talks.siblings("e/f", "", 2);
+            MatcherAssert.assertThat(page, Matchers.<Talk>iterableWithSize(2));
+            MatcherAssert.assertThat(
+                talks.siblings("e/f", page.next(), 2),
+                Matchers.<Talk>iterableWithSize(1)
+            );
+        }
+    }
+
+    /**
+     * LcTalks can recover after a crash in the middle of a write.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void recoversAfterBrokenWrite() throws Exception {
+        final File dir = this.temp.newFolder();
+        try (LcTalks talks = new LcTalks(dir)) {
+            talks.create("c/d", "alpha");
+            talks.delete("alpha");
+            talks.create("c/d", "beta");
+        }
+        try (RandomAccessFile file = new RandomAccessFile(
+            new File(dir, "talks.log"), "rw"
+        )) {
+            file.setLength(file.length() - 1L);
+        }
+        try (LcTalks talks = new LcTalks(dir)) {
+            MatcherAssert.assertThat(talks.exists("alpha"), Matchers.is(false));
+            MatcherAssert.assertThat(talks.exists("beta"), Matchers.is(false));
+            talks.create("c/d", "gamma");
+            MatcherAssert.assertThat(
+                talks.get("gamma").number(),
+                Matchers.equalTo(2L)
+            );
+        }
+        try (LcTalks talks = new LcTalks(dir)) {
+            MatcherAssert.assertThat(talks.exists("gamma"), Matchers.is(true));
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.ready;
+
+import com.rultor.spi.Talks;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.xembly.Directives;
+
+/**
+ * Tests for ${@link RdTalks}.
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class RdTalksTest {
+
+    /**
+     * RdTalks can push a modified talk to the queue, only once.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void pushesModifiedTalk() throws Exception {
+        final Ready ready = new Ready();
+        final Talks talks = new RdTalks(new Talks.InDir(), ready);
+        final String name = "a";
+        talks.create("", name);
+        MatcherAssert.assertThat(ready.take(), Matchers.equalTo(name));
+        talks.get(name).modify(
+            new Directives().xpath("/talk").attr("later", "true")
+        );
+        talks.get(name).modify(
+            new Directives().xpath("/talk").attr("later", "false")
+        );
+        MatcherAssert.assertThat(ready.take(), Matchers.equalTo(name));
+        talks.get(name).modify(new Directives());
+        talks.get(name).active(false);
+        MatcherAssert.assertThat(ready.acquire(name), Matchers.is(true));
+        talks.get(name).active(true);
+        ready.release(name);
+        talks.create("", "b");
+        MatcherAssert.assertThat(ready.take(), Matchers.equalTo("b"));
+    }
+
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.spi;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests for {@link Page}.
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class PageTest {
+
+    /**
+     * Page can point to the next page, until the last one.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void pointsToNextPage() throws Exception {
+        final Talks talks = new Talks.InDir();
+        final String repo = "a/b";
+        talks.create(repo, "first");
+        talks.create(repo, "second");
+        talks.create(repo, "third");
+        final Page page = talks.siblings(repo, "", 2);
+        MatcherAssert.assertThat(page, Matchers.<Talk>iterableWithSize(2));
+        MatcherAssert.assertThat(page.last(), Matchers.is(false));
+        final Page next = talks.siblings(repo, page.next(), 2);
+        MatcherAssert.assertThat(next, Matchers.<Talk>iterableWithSize(1));
+        MatcherAssert.assertThat(next.last(), Matchers.is(true));
+    }
+
+    /**
+     * Page.All can iterate all pages.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void iteratesAllPages() throws Exception {
+        final Talks talks = new Talks.InDir();
+        final String repo = "c/d";
+        talks.create(repo, "alpha");
+        talks.create(repo, "beta");
+        talks.create(repo, "gamma");
+        MatcherAssert.assertThat(
+            new Page.All(cursor -> talks.siblings(repo, cursor, 2)),
+            Matchers.<Talk>iterableWithSize(3)
+        );
+    }
+
+    /**
+     * Page.All can load pages only when they are needed.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void loadsPagesLazily() throws Exception {
+        final Talks talks = new Talks.InDir();
+        final String repo = "e/f";
+        talks.create(repo, "one");
+        talks.create(repo, "two");
+        talks.create(repo, "three");
+        final AtomicInteger loaded = new AtomicInteger();
+        final Iterator<Talk> all = new Page.All(
+            cursor -> {
+                loaded.incrementAndGet();
+                return talks.siblings(repo, cursor, 2);
+            }
+        ).iterator();
+        MatcherAssert.assertThat(loaded.get(), Matchers.equalTo(0));
+        all.next();
+        all.next();
+        MatcherAssert.assertThat(loaded.get(), Matchers.equalTo(1));
+        all.next();
+        MatcherAssert.assertThat(all.hasNext(), Matchers.is(false));
+        MatcherAssert.assertThat(loaded.get(), Matchers.equalTo(2));
+    }
+
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.spi;
+
+import com.jcabi.xml.XMLDocument;
+import java.util.Map;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests for {@link Projection}.
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class ProjectionTest {
+
+    /**
+     * Sample XML of a talk.
+     */
+    private static final String XML = String.join(
+        "",
+        "<talk later='false' name='x'><wire><href>http://a</href>",
+        "<github-repo>a/b</github-repo></wire>",
+        "<daemon id='abcd'><title>t</title></daemon></talk>"
+    );
+
+    /**
+     * Projection can find values in the text.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void findsValuesInText() throws Exception {
+        final Map<String, String> values = new Projection(
+            "/talk/@later", "/talk/wire/href", "/talk/daemon/@id",
+            "/talk/shell/@id"
+        ).apply(ProjectionTest.XML);
+        MatcherAssert.assertThat(values.size(), Matchers.equalTo(3));
+        MatcherAssert.assertThat(
+            values,
+            Matchers.allOf(
+                Matchers.hasEntry("/talk/@later", "false"),
+                Matchers.hasEntry("/talk/wire/href", "http://a"),
+                Matchers.hasEntry("/talk/daemon/@id", "abcd")
+            )
+        );
+    }
+
+    /**
+     * Projection can find the same values in the DOM.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void findsSameValuesInDom() throws Exception {
+        final Projection projection = new Projection(
+            "/talk/@name", "/talk/wire", "/talk/wire/github-repo",
+            "/talk/request/@id"
+        );
+        MatcherAssert.assertThat(
+            projection.apply(new XMLDocument(ProjectionTest.XML).node()),
+            Matchers.equalTo(projection.apply(ProjectionTest.XML))
+        );
+    }
+
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.spi;
+
+import java.util.Arrays;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests for {@link SuperAgent}.
+ *
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class SuperAgentTest {
+
+    /**
+     * SuperAgent.Scan can give all active talks to all agents, in one scan.
+     * @throws Exception In case of error.
+     */
+    @Test
+    public void scansTalksOnce() throws Exception {
+        final Talk first = new Talk.InFile();
+        final Talk second = new Talk.InFile();
+        final Talks talks = Mockito.mock(Talks.class);
+        Mockito.doReturn(Arrays.asList(first, second)).when(talks).active();
+        final Agent left = Mockito.mock(Agent.class);
+        final Agent right = Mockito.mock(Agent.class);
+        new SuperAgent.Scan(left, right).execute(talks);
+        Mockito.verify(talks, Mockito.times(1)).active();
+        Mockito.verify(left).execute(first);
+        Mockito.verify(left).execute(second);
+        Mockito.verify(right).execute(first);
+        Mockito.verify(right).execute(second);
+    }
+
+}
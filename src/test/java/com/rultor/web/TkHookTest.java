@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2009-2019, Yegor Bugayenko
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the rultor.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.rultor.web;
+
+import com.rultor.spi.Talks;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.apache.commons.codec.binary.Hex;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.takes.Response;
+import org.takes.rq.RqFake;
+import org.takes.rq.RqWithHeaders;
+import org.takes.rs.RsPrint;
+
+/**
+ * Test case for {@link TkHook}.
+ * @author Yegor Bugayenko (yegor256@gmail.com)
+ * @version $Id$
+ * @since 2.0
+ */
+public final class TkHookTest {
+
+    /**
+     * Secret of the hook.
+     */
+    private static final String SECRET = "secret";
+
+    /**
+     * Comment with a mention.
+     */
+    private static final String COMMENT = String.join(
+        "",
+        "{\"action\":\"created\",",
+        "\"repository\":{\"full_name\":\"a/b\"},",
+        "\"issue\":{\"number\":7,\"html_url\":\"https://github.com/a/b/7\"},",
+        "\"comment\":{\"body\":\"@rultor hello\"}}"
+    );
+
+    /**
+     * TkHook can activate a talk.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void activatesTalk() throws Exception {
+        final Talks talks = new Talks.InDir();
+        final Response response = new TkHook(
+            talks, TkHookTest.SECRET, "rultor"
+        ).act(
+            new RqWithHeaders(
+                new RqFake("POST", "/hook/github", TkHookTest.COMMENT),
+                "X-GitHub-Event: issue_comment",
+                String.format(
+                    "X-Hub-Signature-256: sha256=%s",
+                    TkHookTest.sign(TkHookTest.COMMENT)
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            new RsPrint(response).printBody(), Matchers.equalTo("a/b#7")
+        );
+        MatcherAssert.assertThat(
+            talks.get("a/b#7").read().xpath("/talk/wire/github-issue/text()"),
+            Matchers.contains("7")
+        );
+    }
+
+    /**
+     * TkHook can reject a wrong signature.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void rejectsWrongSignature() throws Exception {
+        final Talks talks = new Talks.InDir();
+        final Response response = new TkHook(
+            talks, TkHookTest.SECRET, "rultor"
+        ).act(
+            new RqWithHeaders(
+                new RqFake("POST", "/hook/github", TkHookTest.COMMENT),
+                "X-GitHub-Event: issue_comment",
+                "X-Hub-Signature-256: sha256=0000"
+            )
+        );
+        MatcherAssert.assertThat(
+            new RsPrint(response).printHead(),
+            Matchers.containsString(
+                Integer.toString(HttpURLConnection.HTTP_FORBIDDEN)
+            )
+        );
+        MatcherAssert.assertThat(talks.exists("a/b#7"), Matchers.is(false));
+    }
+
+    /**
+     * TkHook can ignore a mention of another login, which starts
+     * with the same letters.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void ignoresMentionOfOtherLogin() throws Exception {
+        final Talks talks = new Talks.InDir();
+        final String body = TkHookTest.COMMENT.replace(
+            "@rultor hello", "@rultorbot hello"
+        );
+        final Response response = new TkHook(
+            talks, TkHookTest.SECRET, "rultor"
+        ).act(
+            new RqWithHeaders(
+                new RqFake("POST", "/hook/github", body),
+                "X-GitHub-Event: issue_comment",
+                String.format(
+                    "X-Hub-Signature-256: sha256=%s", TkHookTest.sign(body)
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            new RsPrint(response).printBody(),
+            Matchers.containsString("ignored")
+        );
+        MatcherAssert.assertThat(talks.exists("a/b#7"), Matchers.is(false));
+    }
+
+    /**
+     * TkHook can refuse to work without the login.
+     * @throws Exception If some problem inside
+     */
+    @Test
+    public void refusesWithoutLogin() throws Exception {
+        final Talks talks = new Talks.InDir();
+        final Response response = new TkHook(
+            talks, TkHookTest.SECRET, "${github.login}"
+        ).act(
+            new RqWithHeaders(
+                new RqFake("POST", "/hook/github", TkHookTest.COMMENT),
+                "X-GitHub-Event: issue_comment",
+                String.format(
+                    "X-Hub-Signature-256: sha256=%s",
+                    TkHookTest.sign(TkHookTest.COMMENT)
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            new RsPrint(response).printHead(),
+            Matchers.containsString(
+                Integer.toString(HttpURLConnection.HTTP_NOT_FOUND)
+            )
+        );
+        MatcherAssert.assertThat(talks.exists("a/b#7"), Matchers.is(false));
+    }
+
+    /**
+     * Sign the body with the secret.
+     * @param body Body
+     * @return Signature in hex
+     * @throws Exception If fails
+     */
+    private static String sign(final String body) throws Exception {
+        final Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(
+            new SecretKeySpec(
+                TkHookTest.SECRET.getBytes(StandardCharsets.UTF_8),
+                "HmacSHA256"
+            )
+        );
+        return Hex.encodeHexString(
+            mac.doFinal(body.getBytes(StandardCharsets.UTF_8))
+        );
+    }
+
+}
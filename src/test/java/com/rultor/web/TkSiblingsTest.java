@@ -34,6 +34,7 @@ import com.rultor.spi.Talk;
 import com.rultor.spi.Talks;
 import org.hamcrest.MatcherAssert;
 import org.junit.Test;
+import org.takes.HttpException;
 import org.takes.facets.fork.RqRegex;
 import org.takes.facets.fork.TkRegex;
 import org.takes.rq.RqFake;
@@ -58,7 +59,7 @@ public final class TkSiblingsTest {
     public void rendersListOfTalks() throws Exception {
         final Talks talks = new Talks.InDir();
         final TkRegex take = new TkSiblings(talks);
-        talks.create("repo1", Talk.TEST_NAME);
+        talks.create("x", Talk.TEST_NAME);
         talks.get(Talk.TEST_NAME).modify(
             new Directives()
                 .xpath("/talk")
@@ -75,7 +76,7 @@ public final class TkSiblingsTest {
                     take.act(
                         new RqRegex.Fake(
                             new RqWithHeader(
-                                new RqFake("GET", "/aa?s=123"),
+                                new RqFake("GET", "/aa?n=1"),
                                 "Accept", "text/xml"
                             ),
                             "(.*)",
@@ -86,7 +87,7 @@ public final class TkSiblingsTest {
             ),
             XhtmlMatchers.hasXPaths(
                 "/page[repo='x']",
-                "/page[since='123']",
+                "/page[cursor='']",
                 "/page/siblings[count(talk)=1]",
                 "/page/siblings/talk[timeago]",
                 "/page/siblings/talk/archive/log[id and href and title]",
@@ -96,4 +97,26 @@ public final class TkSiblingsTest {
         );
     }
 
+    /**
+     * TkSiblings can reject a broken size of the page.
+     * @throws Exception If some problem inside
+     */
+    @Test(expected = HttpException.class)
+    public void rejectsBrokenSize() throws Exception {
+        new TkSiblings(new Talks.InDir()).act(
+            new RqRegex.Fake(new RqFake("GET", "/p/x?n=abc"), "(.*)", "x")
+        );
+    }
+
+    /**
+     * TkSiblings can reject a broken cursor.
+     * @throws Exception If some problem inside
+     */
+    @Test(expected = HttpException.class)
+    public void rejectsBrokenCursor() throws Exception {
+        new TkSiblings(new Talks.InDir()).act(
+            new RqRegex.Fake(new RqFake("GET", "/p/x?c=-1"), "(.*)", "x")
+        );
+    }
+
 }